@@ -0,0 +1,59 @@
+package com.leetcodebot.service;
+
+import net.dv8tion.jda.api.entities.MessageEmbed;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the nightly report, including splitting it into sendable messages, for
+ * servers of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DailyReportBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int users;
+
+    private Map<String, Map<String, List<Map<String, String>>>> allUserStats;
+    private Map<String, Integer> totalSolvedCount;
+
+    @Setup
+    public void setUp() {
+        allUserStats = new HashMap<>();
+        totalSolvedCount = new HashMap<>();
+        String[] difficulties = {"Easy", "Medium", "Hard"};
+        for (int u = 0; u < users; u++) {
+            String username = "user" + u;
+            int solved = 1 + u % 6;
+            Map<String, List<Map<String, String>>> userStats = new HashMap<>();
+            for (String difficulty : difficulties) {
+                userStats.put(difficulty, new ArrayList<>());
+            }
+            for (int p = 0; p < solved; p++) {
+                Map<String, String> problemInfo = new HashMap<>();
+                problemInfo.put("id", "problem-" + p);
+                problemInfo.put("title", "Problem " + p);
+                problemInfo.put("titleSlug", "problem-" + p);
+                userStats.get(difficulties[p % difficulties.length]).add(problemInfo);
+            }
+            allUserStats.put(username, userStats);
+            totalSolvedCount.put(username, solved);
+        }
+    }
+
+    @Benchmark
+    public List<List<MessageEmbed>> renderReport() {
+        return DailyStatisticsService.splitIntoMessages(
+            DailyStatisticsService.createCombinedDailyReport(allUserStats, totalSolvedCount));
+    }
+}
@@ -0,0 +1,38 @@
+package com.leetcodebot.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalescing a window's worth of announcements for one channel into Discord-sized messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NotificationCoalesceBenchmark {
+
+    @Param({"5", "50"})
+    public int announcements;
+
+    private List<String> messages;
+
+    @Setup
+    public void setUp() {
+        messages = new ArrayList<>();
+        for (int i = 0; i < announcements; i++) {
+            messages.add(String.format("🎉 **user%d** has successfully solved **Problem %d**!\n" +
+                "Problem Link: https://leetcode.com/problems/problem-%d/", i, i, i));
+        }
+    }
+
+    @Benchmark
+    public List<String> coalesce() {
+        return NotificationDispatcher.coalesce(messages);
+    }
+}
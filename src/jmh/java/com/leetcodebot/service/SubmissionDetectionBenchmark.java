@@ -0,0 +1,79 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.model.TrackedUser;
+import com.leetcodebot.repository.PollCycleWriter;
+import com.leetcodebot.repository.ChannelSubscriptionRepository;
+import com.leetcodebot.repository.ProblemSolveHistoryRepository;
+import com.leetcodebot.repository.TrackedUserRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One poll cycle's detect-and-persist work for N users against an in-memory H2
+ * database, with canned LeetCode responses standing in for the API: each user has
+ * one new solve among their five recent submissions, half of them re-solves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SubmissionDetectionBenchmark {
+    private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
+    private static final int PROBLEMS = 50;
+
+    @Param({"10", "100"})
+    public int users;
+
+    private SubmissionDetector detector;
+    private List<TrackedUserRegistry.ActiveUser> trackedUsers;
+    private List<List<LeetCodeService.Submission>> responses;
+    private long nextSubmissionId;
+
+    @Setup(Level.Trial)
+    public void setUpDatabase() {
+        System.setProperty("db.url", "jdbc:h2:mem:bench-" + users + ";DB_CLOSE_DELAY=-1");
+        TrackedUserRepository userRepository = new TrackedUserRepository();
+        for (int u = 0; u < users; u++) {
+            userRepository.saveUser(new TrackedUser("bench-user-" + u, "bench-guild", "bench-channel"));
+        }
+        TrackedUserRegistry userRegistry = new TrackedUserRegistry();
+        userRegistry.load(userRepository, new ChannelSubscriptionRepository(), new ProblemSolveHistoryRepository());
+        trackedUsers = userRegistry.getActiveUsers();
+        detector = new SubmissionDetector(new SeenSubmissionIndex(32), TIMEZONE);
+        nextSubmissionId = 1;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpResponses() {
+        long now = Instant.now().getEpochSecond();
+        responses = new ArrayList<>(trackedUsers.size());
+        for (int u = 0; u < trackedUsers.size(); u++) {
+            // Newest first, like the API: one fresh submission followed by four already seen
+            List<LeetCodeService.Submission> submissions = new ArrayList<>();
+            long id = nextSubmissionId++;
+            String slug = "problem-" + (id % PROBLEMS);
+            submissions.add(new LeetCodeService.Submission(String.valueOf(id), slug, slug, now));
+            for (int s = 1; s < 5; s++) {
+                String oldSlug = "problem-" + s;
+                submissions.add(new LeetCodeService.Submission("old-" + u + "-" + s, oldSlug, oldSlug, now - s));
+            }
+            responses.add(submissions);
+        }
+    }
+
+    @Benchmark
+    public List<PollCycleWriter.DetectedSolve> detectAndPersist() {
+        PollCycleWriter writer = new PollCycleWriter();
+        for (int u = 0; u < trackedUsers.size(); u++) {
+            detector.detect(trackedUsers.get(u), responses.get(u), writer);
+        }
+        return writer.flush();
+    }
+}
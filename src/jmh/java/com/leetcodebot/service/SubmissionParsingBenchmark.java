@@ -0,0 +1,80 @@
+package com.leetcodebot.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of mapping one batched {@code recentAcSubmissionList} response, which happens
+ * for every batch of tracked users on every poll.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SubmissionParsingBenchmark {
+
+    @Param({"1", "20"})
+    public int users;
+
+    private LeetCodeResponseParser parser;
+    private List<String> usernames;
+    private byte[] batchResponse;
+    private SubmissionFingerprints unchangedFingerprints;
+
+    @Setup
+    public void setUp() {
+        parser = new LeetCodeResponseParser(new ObjectMapper().getFactory());
+        usernames = new ArrayList<>();
+        StringBuilder json = new StringBuilder("{\"data\":{");
+        for (int u = 0; u < users; u++) {
+            usernames.add("user" + u);
+            if (u > 0) {
+                json.append(',');
+            }
+            json.append("\"u").append(u).append("\":[");
+            for (int s = 0; s < 5; s++) {
+                if (s > 0) {
+                    json.append(',');
+                }
+                json.append("{\"id\":\"").append(1_000_000 + u * 10 + s)
+                    .append("\",\"title\":\"Two Sum ").append(s)
+                    .append("\",\"titleSlug\":\"two-sum-").append(s)
+                    .append("\",\"timestamp\":\"").append(1_700_000_000L + s).append("\"}");
+            }
+            json.append(']');
+        }
+        batchResponse = json.append("}}").toString().getBytes(StandardCharsets.UTF_8);
+        unchangedFingerprints = new SubmissionFingerprints();
+        Map<String, String> newestIds = new HashMap<>();
+        for (int u = 0; u < users; u++) {
+            newestIds.put("user" + u, String.valueOf(1_000_000 + u * 10));
+        }
+        unchangedFingerprints.remember(newestIds);
+    }
+
+    @Benchmark
+    public Map<String, List<LeetCodeService.Submission>> parseBatch() throws IOException {
+        return parser.parseRecentSubmissionsBatch(new ByteArrayInputStream(batchResponse), usernames,
+            new SubmissionFingerprints());
+    }
+
+    /**
+     * The common case: every user's newest submission is the one seen on the previous poll.
+     */
+    @Benchmark
+    public Map<String, List<LeetCodeService.Submission>> parseBatchUnchanged() throws IOException {
+        return parser.parseRecentSubmissionsBatch(new ByteArrayInputStream(batchResponse), usernames,
+            unchangedFingerprints);
+    }
+}
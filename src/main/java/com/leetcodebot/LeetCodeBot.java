@@ -3,16 +3,21 @@ package com.leetcodebot;
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.JDABuilder;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
+import net.dv8tion.jda.api.interactions.commands.build.OptionData;
 import com.leetcodebot.commands.TrackCommand;
+import com.leetcodebot.metrics.BotMetrics;
 import com.leetcodebot.service.LeetCodeService;
 import com.leetcodebot.service.SubmissionTracker;
 import com.leetcodebot.web.KeepAlive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 
 public class LeetCodeBot {
+    private static final Logger logger = LoggerFactory.getLogger(LeetCodeBot.class);
     private static final String CONFIG_FILE = "config.properties";
     private final JDA jda;
     private final LeetCodeService leetCodeService;
@@ -30,7 +35,7 @@ public class LeetCodeBot {
         leetCodeService = new LeetCodeService(config);
         keepAlive = new KeepAlive();
 
-        System.out.println("Initializing Discord bot with token...");
+        logger.info("Initializing Discord bot");
         jda = JDABuilder.createDefault(token)
                 .enableIntents(
                     net.dv8tion.jda.api.requests.GatewayIntent.GUILD_MESSAGES,
@@ -45,23 +50,20 @@ public class LeetCodeBot {
         // Wait for the bot to be ready
         try {
             jda.awaitReady();
-            System.out.println("Bot successfully connected to Discord!");
-            System.out.println("Bot name: " + jda.getSelfUser().getName());
-            System.out.println("Bot ID: " + jda.getSelfUser().getId());
-            System.out.println("Connected to " + jda.getGuilds().size() + " servers:");
+            logger.info("Bot {} ({}) connected to Discord, in {} servers",
+                jda.getSelfUser().getName(), jda.getSelfUser().getId(), jda.getGuilds().size());
             jda.getGuilds().forEach(guild -> {
-                System.out.println("- " + guild.getName() + " (ID: " + guild.getId() + ")");
-                System.out.println("  Available channels:");
+                logger.debug("Server {} ({}) with {} channels", guild.getName(), guild.getId(), guild.getChannels().size());
                 guild.getChannels().forEach(channel -> 
-                    System.out.println("  - " + channel.getName() + " (ID: " + channel.getId() + ")")
+                    logger.debug("Channel {} ({}) in {}", channel.getName(), channel.getId(), guild.getName())
                 );
             });
         } catch (InterruptedException e) {
-            System.err.println("Failed to initialize bot: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to initialize bot", e);
         }
 
         submissionTracker = new SubmissionTracker(leetCodeService, jda);
+        BotMetrics.bind(leetCodeService, submissionTracker);
         
         jda.addEventListener(new TrackCommand(submissionTracker));
 
@@ -72,12 +74,21 @@ public class LeetCodeBot {
                 Commands.slash("untrack", "Stop tracking a LeetCode user")
                         .addOption(net.dv8tion.jda.api.interactions.commands.OptionType.STRING, "username", "LeetCode username to untrack", true),
                 Commands.slash("list-tracked", "List all tracked LeetCode users in this server")
+                        .setGuildOnly(true),
+                Commands.slash("leaderboard", "Rank this server's tracked users by problems solved")
+                        .setGuildOnly(true)
+                        .addOptions(new OptionData(net.dv8tion.jda.api.interactions.commands.OptionType.STRING, "period", "Time period to rank (default: week)", false)
+                                .addChoice("week", "week")
+                                .addChoice("month", "month")
+                                .addChoice("all", "all")),
+                Commands.slash("streak", "Show a tracked user's daily solve streak")
+                        .addOption(net.dv8tion.jda.api.interactions.commands.OptionType.STRING, "username", "LeetCode username", true)
         ).queue();
 
         // Start the keep-alive server
         keepAlive.start();
         
-        System.out.println("Bot is ready! Use /track <username> to start tracking LeetCode users.");
+        logger.info("Bot is ready! Use /track <username> to start tracking LeetCode users.");
     }
 
     private Properties loadConfig() throws IOException {
@@ -107,7 +118,7 @@ public class LeetCodeBot {
             config.setProperty("leetcode.api.recent_submissions_query", 
                 "query recentAcSubmissionList($username: String!, $limit: Int) { " +
                 "recentAcSubmissionList(username: $username, limit: $limit) { " +
-                "id title titleSlug timestamp } }");
+                "id title titleSlug timestamp lang } }");
         }
 
         return config;
@@ -117,8 +128,7 @@ public class LeetCodeBot {
         try {
             new LeetCodeBot();
         } catch (Exception e) {
-            System.err.println("Failed to start bot: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to start bot", e);
         }
     }
 } 
\ No newline at end of file
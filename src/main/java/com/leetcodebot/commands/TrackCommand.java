@@ -1,63 +1,137 @@
 package com.leetcodebot.commands;
 
+import com.leetcodebot.metrics.Metrics;
+import com.leetcodebot.model.LeaderboardEntry;
+import com.leetcodebot.model.UserStreak;
+import com.leetcodebot.service.LeaderboardService;
 import com.leetcodebot.service.SubmissionTracker;
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
 import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.interactions.InteractionHook;
+import net.dv8tion.jda.api.interactions.commands.OptionMapping;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.awt.Color;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Handles the tracking slash commands. Each interaction is acknowledged with a deferred
+ * reply straight away on the JDA event thread, and the database and LeetCode work runs
+ * on a small dedicated pool that completes the reply through the interaction hook, so a
+ * slow command neither blocks other events nor runs into Discord's 3-second deadline.
+ */
 public class TrackCommand extends ListenerAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(TrackCommand.class);
+    private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
+    private static final int LEADERBOARD_SIZE = 10;
+
     private final SubmissionTracker submissionTracker;
+    private final ExecutorService executor;
 
     public TrackCommand(SubmissionTracker submissionTracker) {
         this.submissionTracker = submissionTracker;
+        int concurrency = Integer.parseInt(System.getenv().getOrDefault("COMMAND_CONCURRENCY", "4"));
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "command-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Override
     public void onSlashCommandInteraction(SlashCommandInteractionEvent event) {
-        switch (event.getName()) {
-            case "track":
-                handleTrackCommand(event);
-                break;
-            case "untrack":
-                handleUntrackCommand(event);
-                break;
-            case "list-tracked":
-                handleListTrackedCommand(event);
-                break;
+        String command = event.getName();
+        if (!command.equals("track") && !command.equals("untrack") && !command.equals("list-tracked")
+                && !command.equals("leaderboard") && !command.equals("streak")) {
+            return;
+        }
+        long start = System.nanoTime();
+        event.deferReply().queue();
+        InteractionHook hook = event.getHook();
+        try {
+            executor.execute(() -> handle(command, event, hook, start));
+        } catch (RejectedExecutionException e) {
+            logger.error("Rejected /{} command", command, e);
+            hook.editOriginal("❌ The bot is shutting down, please try again later.").queue();
+            recordLatency(command, "rejected", start);
+        }
+    }
+
+    private void handle(String command, SlashCommandInteractionEvent event, InteractionHook hook, long start) {
+        String outcome = "ok";
+        try {
+            switch (command) {
+                case "track":
+                    handleTrackCommand(event, hook);
+                    break;
+                case "untrack":
+                    handleUntrackCommand(event, hook);
+                    break;
+                case "list-tracked":
+                    handleListTrackedCommand(event, hook);
+                    break;
+                case "leaderboard":
+                    handleLeaderboardCommand(event, hook);
+                    break;
+                case "streak":
+                    handleStreakCommand(event, hook);
+                    break;
+            }
+        } catch (Exception e) {
+            outcome = "error";
+            logger.error("Failed to handle /{} command", command, e);
+            hook.editOriginal("❌ Something went wrong while handling this command, please try again later.").queue();
+        } finally {
+            recordLatency(command, outcome, start);
         }
     }
 
-    private void handleTrackCommand(SlashCommandInteractionEvent event) {
+    private void handleTrackCommand(SlashCommandInteractionEvent event, InteractionHook hook) {
         String username = event.getOption("username").getAsString();
-        
-        if (submissionTracker.isUserTracked(username, event.getChannel())) {
-            event.reply("❌ User **" + username + "** is already being tracked in this channel!").setEphemeral(true).queue();
+        MessageChannel channel = event.getChannel();
+
+        if (submissionTracker.isUserTracked(username, channel)) {
+            hook.editOriginal("❌ User **" + username + "** is already being tracked in this channel!").queue();
             return;
         }
 
-        submissionTracker.trackUser(username, event.getChannel());
-        event.reply("✅ Now tracking LeetCode submissions for user **" + username + "**!").queue();
+        submissionTracker.trackUser(username, channel);
+        hook.editOriginal("✅ Now tracking LeetCode submissions for user **" + username + "**!").queue();
     }
 
-    private void handleUntrackCommand(SlashCommandInteractionEvent event) {
+    private void handleUntrackCommand(SlashCommandInteractionEvent event, InteractionHook hook) {
         String username = event.getOption("username").getAsString();
-        
-        if (!submissionTracker.isUserTracked(username, event.getChannel())) {
-            event.reply("❌ User **" + username + "** is not being tracked in this channel!").setEphemeral(true).queue();
+        MessageChannel channel = event.getChannel();
+
+        if (!submissionTracker.isUserTracked(username, channel)) {
+            hook.editOriginal("❌ User **" + username + "** is not being tracked in this channel!").queue();
             return;
         }
 
-        submissionTracker.untrackUser(username, event.getChannel());
-        event.reply("✅ Stopped tracking LeetCode submissions for user **" + username + "**!").queue();
+        submissionTracker.untrackUser(username, channel);
+        hook.editOriginal("✅ Stopped tracking LeetCode submissions for user **" + username + "**!").queue();
     }
 
-    private void handleListTrackedCommand(SlashCommandInteractionEvent event) {
+    private void handleListTrackedCommand(SlashCommandInteractionEvent event, InteractionHook hook) {
+        if (!event.isFromGuild()) {
+            hook.editOriginal("❌ This command can only be used in a server.").queue();
+            return;
+        }
         Map<String, Integer> trackedUsers = submissionTracker.getTrackedUsersInServer(event.getGuild().getId());
-        
+
         if (trackedUsers.isEmpty()) {
-            event.reply("❌ No users are currently being tracked in this server.").setEphemeral(true).queue();
+            hook.editOriginal("❌ No users are currently being tracked in this server.").queue();
             return;
         }
 
@@ -68,8 +142,8 @@ public class TrackCommand extends ListenerAdapter {
 
         StringBuilder userList = new StringBuilder();
         for (Map.Entry<String, Integer> entry : trackedUsers.entrySet()) {
-            userList.append(String.format("• **%s** (tracked in %d channel%s)\n", 
-                entry.getKey(), 
+            userList.append(String.format("• **%s** (tracked in %d channel%s)\n",
+                entry.getKey(),
                 entry.getValue(),
                 entry.getValue() == 1 ? "" : "s"));
         }
@@ -77,6 +151,87 @@ public class TrackCommand extends ListenerAdapter {
         embed.addField("Users", userList.toString(), false);
         embed.setFooter("Total: " + trackedUsers.size() + " user(s)");
 
-        event.replyEmbeds(embed.build()).queue();
+        hook.editOriginalEmbeds(embed.build()).queue();
+    }
+
+    private void handleLeaderboardCommand(SlashCommandInteractionEvent event, InteractionHook hook) {
+        if (!event.isFromGuild()) {
+            hook.editOriginal("❌ This command can only be used in a server.").queue();
+            return;
+        }
+        OptionMapping periodOption = event.getOption("period");
+        LeaderboardService.Period period = LeaderboardService.Period.fromOption(
+            periodOption == null ? null : periodOption.getAsString());
+        List<LeaderboardEntry> entries = submissionTracker.getLeaderboardService()
+            .getLeaderboard(event.getGuild().getId(), period);
+
+        if (entries.isEmpty()) {
+            hook.editOriginal("❌ No solves have been recorded in this server for that period.").queue();
+            return;
+        }
+
+        String title;
+        switch (period) {
+            case MONTH:
+                title = "🏆 Leaderboard - Last 30 Days";
+                break;
+            case ALL:
+                title = "🏆 Leaderboard - All Time";
+                break;
+            default:
+                title = "🏆 Leaderboard - Last 7 Days";
+                break;
+        }
+        EmbedBuilder embed = new EmbedBuilder()
+            .setTitle(title)
+            .setColor(new Color(241, 196, 15));
+
+        StringBuilder ranking = new StringBuilder();
+        for (int i = 0; i < Math.min(LEADERBOARD_SIZE, entries.size()); i++) {
+            LeaderboardEntry entry = entries.get(i);
+            ranking.append(String.format("%d. **%s** - %d solved (E: %d, M: %d, H: %d)\n",
+                i + 1,
+                entry.getUsername(),
+                entry.getTotal(),
+                entry.getEasy(),
+                entry.getMedium(),
+                entry.getHard()));
+        }
+
+        embed.setDescription(ranking.toString());
+        embed.setFooter(entries.size() + " user(s) with solves in this period");
+
+        hook.editOriginalEmbeds(embed.build()).queue();
+    }
+
+    private void handleStreakCommand(SlashCommandInteractionEvent event, InteractionHook hook) {
+        String username = event.getOption("username").getAsString();
+        if (submissionTracker.getUserRegistry().get(username) == null) {
+            hook.editOriginal("❌ User **" + username + "** is not being tracked!").queue();
+            return;
+        }
+
+        UserStreak streak = submissionTracker.getStreak(username);
+        if (streak == null) {
+            hook.editOriginal("❌ No solves have been recorded for **" + username + "** yet.").queue();
+            return;
+        }
+
+        int current = streak.getCurrentStreak(LocalDate.now(TIMEZONE));
+        EmbedBuilder embed = new EmbedBuilder()
+            .setTitle("🔥 " + username + "'s Streak")
+            .setColor(new Color(230, 126, 34))
+            .addField("Current", current + " day" + (current == 1 ? "" : "s"), true)
+            .addField("Longest", streak.getLongestStreak() + " day" + (streak.getLongestStreak() == 1 ? "" : "s"), true)
+            .setFooter("Last active: " + streak.getLastActiveDate());
+
+        hook.editOriginalEmbeds(embed.build()).queue();
+    }
+
+    // Observed once the reply is queued; Discord's own round trip for the edit is not included
+    private static void recordLatency(String command, String outcome, long start) {
+        Metrics.histogram("discord_command_duration_seconds",
+            "Time from receiving a slash command until its reply was queued", "command", command, "outcome", outcome)
+            .observeNanosSince(start);
     }
-} 
\ No newline at end of file
+}
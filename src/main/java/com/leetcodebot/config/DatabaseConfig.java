@@ -5,6 +5,8 @@ import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpExchange;
 import jakarta.persistence.EntityManagerFactory;
 import jakarta.persistence.Persistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
@@ -15,6 +17,7 @@ import java.util.Map;
 import java.io.File;
 
 public class DatabaseConfig {
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseConfig.class);
     private static EntityManagerFactory entityManagerFactory;
     private static HttpServer consoleServer;
     private static final String DEFAULT_DB_PATH = System.getProperty("user.home") + "/leetcodebot-data/db";
@@ -23,8 +26,8 @@ public class DatabaseConfig {
     public static EntityManagerFactory getEntityManagerFactory() {
         if (entityManagerFactory == null) {
             try {
-                // Get the database URL from environment or construct it
-                String dbUrl = System.getenv("DB_URL");
+                // Get the database URL from a system property (benchmarks), the environment, or construct it
+                String dbUrl = System.getProperty("db.url", System.getenv("DB_URL"));
                 if (dbUrl == null || dbUrl.isEmpty()) {
                     // Check if we're running on Railway by looking for the volume mount
                     File volumeDir = new File(RAILWAY_VOLUME_PATH);
@@ -36,7 +39,7 @@ public class DatabaseConfig {
                             // Use the latest mount directory for the database
                             dbUrl = String.format("jdbc:h2:file:%s/leetcodebot;AUTO_SERVER=TRUE", 
                                 latestMount.getAbsolutePath());
-                            System.out.println("Using Railway volume for database storage: " + dbUrl);
+                            logger.info("Using Railway volume for database storage: {}", dbUrl);
                         }
                     }
                     
@@ -50,24 +53,28 @@ public class DatabaseConfig {
                         
                         // Use the absolute path for the database
                         dbUrl = String.format("jdbc:h2:file:%s;AUTO_SERVER=TRUE", DEFAULT_DB_PATH);
-                        System.out.println("Using local development path for database storage: " + dbUrl);
+                        logger.info("Using local development path for database storage: {}", dbUrl);
                     }
                 }
                 
-                System.out.println("Initializing database with URL: " + dbUrl);
+                logger.info("Initializing database with URL: {}", dbUrl);
                 
                 // Create properties for persistence unit
                 Map<String, String> properties = new HashMap<>();
                 properties.put("hibernate.hikari.dataSource.url", dbUrl);
                 
-                // Create EntityManagerFactory with properties
-                entityManagerFactory = Persistence.createEntityManagerFactory("leetcodebotPU", properties);
+                // Create EntityManagerFactory with properties, and bring the schema up to date before it is used
+                EntityManagerFactory factory = Persistence.createEntityManagerFactory("leetcodebotPU", properties);
+                SchemaMigrator.migrate(factory);
+                entityManagerFactory = factory;
                 
-                System.out.println("Successfully created EntityManagerFactory");
-                startH2Console(dbUrl);
+                logger.info("Successfully created EntityManagerFactory");
+                // In-memory databases (tests, benchmarks) have nothing worth browsing
+                if (!dbUrl.startsWith("jdbc:h2:mem:")) {
+                    startH2Console(dbUrl);
+                }
             } catch (Exception e) {
-                System.err.println("Failed to create EntityManagerFactory: " + e.getMessage());
-                e.printStackTrace();
+                logger.error("Failed to create EntityManagerFactory", e);
             }
         }
         return entityManagerFactory;
@@ -83,9 +90,8 @@ public class DatabaseConfig {
         consoleServer.setExecutor(null);
         consoleServer.start();
 
-        System.out.println("H2 Console started on port " + port);
-        System.out.println("Database URL: " + dbUrl);
-        System.out.println("Username: " + System.getenv().getOrDefault("DB_USER", "sa"));
+        logger.info("H2 Console started on port {} for {} (user {})", port, dbUrl,
+            System.getenv().getOrDefault("DB_USER", "sa"));
     }
 
     private static class H2ConsoleHandler implements HttpHandler {
@@ -0,0 +1,59 @@
+package com.leetcodebot.config;
+
+import okhttp3.Cookie;
+import okhttp3.CookieJar;
+import okhttp3.HttpUrl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe cookie store keyed by cookie domain. Cookies are replaced one by one
+ * (by name, domain and path) instead of wholesale, so a response that sets a single
+ * cookie no longer wipes the session cookies set by earlier ones.
+ */
+public class HostCookieJar implements CookieJar {
+    private final Map<String, Map<String, Cookie>> cookiesByDomain = new ConcurrentHashMap<>();
+
+    @Override
+    public void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
+        for (Cookie cookie : cookies) {
+            Map<String, Cookie> domainCookies =
+                cookiesByDomain.computeIfAbsent(cookie.domain(), domain -> new ConcurrentHashMap<>());
+            String key = cookie.name() + ";" + cookie.path();
+            if (cookie.expiresAt() < System.currentTimeMillis()) {
+                domainCookies.remove(key);
+            } else {
+                domainCookies.put(key, cookie);
+            }
+        }
+    }
+
+    @Override
+    public List<Cookie> loadForRequest(HttpUrl url) {
+        List<Cookie> matching = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        // Walk the host and its parent domains: a cookie for leetcode.com also applies to www.leetcode.com
+        String domain = url.host();
+        while (domain != null) {
+            Map<String, Cookie> domainCookies = cookiesByDomain.get(domain);
+            if (domainCookies != null) {
+                Iterator<Cookie> iterator = domainCookies.values().iterator();
+                while (iterator.hasNext()) {
+                    Cookie cookie = iterator.next();
+                    if (cookie.expiresAt() < now) {
+                        iterator.remove();
+                    } else if (cookie.matches(url)) {
+                        matching.add(cookie);
+                    }
+                }
+            }
+            int dot = domain.indexOf('.');
+            domain = dot < 0 ? null : domain.substring(dot + 1);
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,61 @@
+package com.leetcodebot.config;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the single OkHttpClient used for all LeetCode traffic. The connection pool is
+ * sized for the polling concurrency so parallel pollers reuse a few kept-alive
+ * connections (multiplexed over HTTP/2 when the server offers it) instead of opening a
+ * new TLS connection per request. Responses are gzip-compressed transparently by
+ * OkHttp as long as no Accept-Encoding header is set by hand.
+ */
+public class HttpClientConfig {
+    private static final String DEFAULT_CONNECT_TIMEOUT_MS = "10000";
+    private static final String DEFAULT_READ_TIMEOUT_MS = "30000";
+    private static final String DEFAULT_WRITE_TIMEOUT_MS = "30000";
+    // Covers token waits and backoff retries inside the interceptors too
+    private static final String DEFAULT_CALL_TIMEOUT_MS = "120000";
+    private static final String DEFAULT_KEEP_ALIVE_SECONDS = "300";
+
+    public static OkHttpClient createLeetCodeClient(Properties config, Interceptor... interceptors) {
+        int concurrency = Integer.parseInt(System.getenv().getOrDefault("POLL_CONCURRENCY", "8"));
+
+        // Only asynchronous calls are queued by the dispatcher; synchronous polls are bounded by the poller pool
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(Math.max(concurrency * 2, 16));
+        dispatcher.setMaxRequestsPerHost(concurrency);
+
+        ConnectionPool connectionPool = new ConnectionPool(
+                concurrency,
+                Long.parseLong(config.getProperty("leetcode.http.keep_alive_seconds", DEFAULT_KEEP_ALIVE_SECONDS)),
+                TimeUnit.SECONDS);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .followRedirects(true)
+                .protocols(List.of(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .dispatcher(dispatcher)
+                .connectionPool(connectionPool)
+                .cookieJar(new HostCookieJar())
+                .retryOnConnectionFailure(true)
+                .connectTimeout(timeout(config, "leetcode.http.connect_timeout_ms", DEFAULT_CONNECT_TIMEOUT_MS), TimeUnit.MILLISECONDS)
+                .readTimeout(timeout(config, "leetcode.http.read_timeout_ms", DEFAULT_READ_TIMEOUT_MS), TimeUnit.MILLISECONDS)
+                .writeTimeout(timeout(config, "leetcode.http.write_timeout_ms", DEFAULT_WRITE_TIMEOUT_MS), TimeUnit.MILLISECONDS)
+                .callTimeout(timeout(config, "leetcode.http.call_timeout_ms", DEFAULT_CALL_TIMEOUT_MS), TimeUnit.MILLISECONDS);
+        for (Interceptor interceptor : interceptors) {
+            builder.addInterceptor(interceptor);
+        }
+        return builder.build();
+    }
+
+    private static long timeout(Properties config, String key, String defaultValue) {
+        return Long.parseLong(config.getProperty(key, defaultValue));
+    }
+}
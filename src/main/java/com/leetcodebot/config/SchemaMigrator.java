@@ -0,0 +1,125 @@
+package com.leetcodebot.config;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Versioned schema migrations. The scripts under {@code db/migration}, named
+ * {@code V<version>__<description>.sql}, are applied in version order unless
+ * {@code schema_version} records them as applied already. Hibernate no longer touches
+ * the schema, so every schema change needs a new script listed in {@link #MIGRATIONS}.
+ * H2 commits DDL implicitly, so scripts are written to be safely re-run after a failure.
+ */
+public final class SchemaMigrator {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaMigrator.class);
+    private static final String LOCATION = "db/migration/";
+    private static final String[] MIGRATIONS = {
+        "V1__baseline.sql",
+        "V2__query_indexes.sql",
+        "V3__submission_event_log.sql",
+        "V4__solve_rollups.sql",
+        "V5__user_streaks.sql",
+        "V6__move_user_channels.sql"
+    };
+
+    private SchemaMigrator() {
+    }
+
+    public static void migrate(EntityManagerFactory entityManagerFactory) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.unwrap(Session.class).doWork(SchemaMigrator::applyPending);
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static void applyPending(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                "version INTEGER PRIMARY KEY, description VARCHAR(255) NOT NULL, installed_at TIMESTAMP NOT NULL)");
+            connection.commit();
+
+            int current;
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+                result.next();
+                current = result.getInt(1);
+            }
+
+            for (String script : MIGRATIONS) {
+                int version = Integer.parseInt(script.substring(1, script.indexOf("__")));
+                if (version <= current) {
+                    continue;
+                }
+                String description = script.substring(script.indexOf("__") + 2, script.lastIndexOf('.')).replace('_', ' ');
+                for (String sql : readStatements(script)) {
+                    statement.execute(sql);
+                }
+                try (PreparedStatement record = connection.prepareStatement(
+                        "INSERT INTO schema_version (version, description, installed_at) VALUES (?, ?, CURRENT_TIMESTAMP)")) {
+                    record.setInt(1, version);
+                    record.setString(2, description);
+                    record.executeUpdate();
+                }
+                connection.commit();
+                logger.info("Applied schema migration {} ({})", version, description);
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Splits a script into statements on semicolons at the end of a line, dropping {@code --} comments.
+     */
+    private static List<String> readStatements(String script) {
+        String text;
+        try (InputStream input = SchemaMigrator.class.getClassLoader().getResourceAsStream(LOCATION + script)) {
+            if (input == null) {
+                throw new IllegalStateException("Missing schema migration " + LOCATION + script);
+            }
+            text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read schema migration " + script, e);
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+}
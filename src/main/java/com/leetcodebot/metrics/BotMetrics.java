@@ -0,0 +1,105 @@
+package com.leetcodebot.metrics;
+
+import com.leetcodebot.service.ChannelRegistry;
+import com.leetcodebot.service.LeetCodeService;
+import com.leetcodebot.service.NotificationDispatcher;
+import com.leetcodebot.service.PollingEngine;
+import com.leetcodebot.service.RateLimitingInterceptor;
+import com.leetcodebot.service.SubmissionFingerprints;
+import com.leetcodebot.service.SubmissionTracker;
+import com.leetcodebot.service.TrackedUserRegistry;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+/**
+ * Exposes the counters the bot's components already keep, plus tracking and JVM
+ * figures, as scrape-time metrics. Hot-path timings are recorded where they happen.
+ */
+public final class BotMetrics {
+    private BotMetrics() {
+    }
+
+    public static void bind(LeetCodeService leetCodeService, SubmissionTracker submissionTracker) {
+        bindPolling(submissionTracker.getPollingEngine());
+        bindLeetCode(leetCodeService.getRateLimiter(), leetCodeService.getFingerprints());
+        bindNotifications(submissionTracker.getNotificationDispatcher());
+        bindChannels(submissionTracker.getChannelRegistry());
+        bindTracking(submissionTracker.getUserRegistry());
+        bindJvm();
+    }
+
+    private static void bindPolling(PollingEngine pollingEngine) {
+        Metrics.counter("poll_cycles_total", "Completed poll cycles", pollingEngine::getCompletedCycles);
+        Metrics.counter("poll_cycle_overruns_total", "Poll cycles that took longer than the poll period",
+            pollingEngine::getOverrunCycles);
+        Metrics.counter("poll_task_failures_total", "Poll tasks that failed with an exception",
+            pollingEngine::getFailedTasks);
+        Metrics.gauge("poll_concurrency", "Number of poller threads", pollingEngine::getConcurrency);
+    }
+
+    private static void bindLeetCode(RateLimitingInterceptor rateLimiter, SubmissionFingerprints fingerprints) {
+        Metrics.counter("leetcode_rate_limited_calls_total", "Calls that waited for a rate limit token",
+            rateLimiter::getDelayedCalls);
+        Metrics.counter("leetcode_throttled_responses_total", "429 and 503 answers from LeetCode",
+            rateLimiter::getThrottledCalls);
+        Metrics.counter("leetcode_retries_total", "Calls retried after being throttled",
+            rateLimiter::getRetriedCalls);
+        Metrics.counter("leetcode_failed_calls_total", "Calls that failed after retries or were refused by the circuit breaker",
+            rateLimiter::getFailedCalls);
+        Metrics.counter("leetcode_circuit_openings_total", "Times the LeetCode circuit breaker opened",
+            rateLimiter::getCircuitOpenings);
+        Metrics.gauge("leetcode_circuit_open", "1 while the LeetCode circuit breaker is open",
+            () -> rateLimiter.isCircuitOpen() ? 1 : 0);
+        Metrics.counter("submission_fingerprint_hits_total", "Submission lists skipped as unchanged",
+            fingerprints::getHits);
+        Metrics.counter("submission_fingerprint_misses_total", "Submission lists that changed since the previous poll",
+            fingerprints::getMisses);
+    }
+
+    private static void bindNotifications(NotificationDispatcher dispatcher) {
+        Metrics.gauge("discord_send_queue_depth", "Announcements waiting to be sent",
+            dispatcher::getQueueDepth);
+        Metrics.counter("discord_messages_sent_total", "Messages sent to Discord", dispatcher::getSentMessages);
+        Metrics.counter("discord_messages_failed_total", "Announcements that could not be delivered",
+            dispatcher::getFailedMessages);
+        Metrics.gauge("discord_send_latency_average_seconds", "Average time from queueing to delivery",
+            () -> dispatcher.getAverageSendLatencyMillis() / 1000d);
+        Metrics.gauge("discord_send_latency_max_seconds", "Longest time from queueing to delivery",
+            () -> dispatcher.getMaxSendLatencyMillis() / 1000d);
+    }
+
+    private static void bindChannels(ChannelRegistry channelRegistry) {
+        Metrics.gauge("discord_channels_cached", "Channels with a cached guild mapping",
+            channelRegistry::getCachedChannels);
+        Metrics.gauge("discord_dead_channels_pending", "Dead channels waiting to be pruned from subscriptions",
+            channelRegistry::getPendingDeadChannels);
+    }
+
+    private static void bindTracking(TrackedUserRegistry userRegistry) {
+        Metrics.gauge("tracked_users", "Actively tracked LeetCode users", userRegistry::size);
+        Metrics.gauge("tracked_channels", "Channels receiving announcements", userRegistry::countChannels);
+    }
+
+    private static void bindJvm() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        Metrics.gauge("jvm_memory_used_bytes", "Used JVM memory", () -> memory.getHeapMemoryUsage().getUsed(),
+            "area", "heap");
+        Metrics.gauge("jvm_memory_used_bytes", "Used JVM memory", () -> memory.getNonHeapMemoryUsage().getUsed(),
+            "area", "nonheap");
+        Metrics.gauge("jvm_memory_committed_bytes", "Committed JVM memory",
+            () -> memory.getHeapMemoryUsage().getCommitted(), "area", "heap");
+        Metrics.gauge("jvm_memory_committed_bytes", "Committed JVM memory",
+            () -> memory.getNonHeapMemoryUsage().getCommitted(), "area", "nonheap");
+        Metrics.gauge("jvm_memory_max_bytes", "Maximum JVM heap (-Xmx)", () -> memory.getHeapMemoryUsage().getMax(),
+            "area", "heap");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            Metrics.counter("jvm_gc_collections_total", "Garbage collections", gc::getCollectionCount,
+                "gc", gc.getName());
+            Metrics.counter("jvm_gc_collection_seconds_total", "Time spent in garbage collection",
+                () -> gc.getCollectionTime() / 1000d, "gc", gc.getName());
+        }
+        Metrics.gauge("jvm_threads_live", "Live JVM threads", () -> ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+}
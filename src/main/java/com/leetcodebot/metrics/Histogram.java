@@ -0,0 +1,57 @@
+package com.leetcodebot.metrics;
+
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations in seconds over fixed bucket bounds, rendered in
+ * Prometheus' cumulative {@code _bucket}/{@code _sum}/{@code _count} form.
+ */
+public class Histogram {
+    static final double[] DEFAULT_BOUNDS = {0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+
+    private final double[] bounds;
+    private final LongAdder[] buckets;
+    private final LongAdder count = new LongAdder();
+    private final DoubleAdder sum = new DoubleAdder();
+
+    Histogram(double[] bounds) {
+        this.bounds = bounds;
+        this.buckets = new LongAdder[bounds.length];
+        for (int i = 0; i < bounds.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void observe(double seconds) {
+        for (int i = 0; i < bounds.length; i++) {
+            if (seconds <= bounds[i]) {
+                buckets[i].increment();
+                break;
+            }
+        }
+        count.increment();
+        sum.add(seconds);
+    }
+
+    /**
+     * Records the time elapsed since {@code startNanos}, a value of {@link System#nanoTime()}.
+     */
+    public void observeNanosSince(long startNanos) {
+        observe((System.nanoTime() - startNanos) / 1_000_000_000d);
+    }
+
+    void render(StringBuilder out, String name, String labels) {
+        long cumulative = 0;
+        for (int i = 0; i < bounds.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{").append(labels).append(labels.isEmpty() ? "" : ",")
+               .append("le=\"").append(bounds[i]).append("\"} ").append(cumulative).append('\n');
+        }
+        long total = count.sum();
+        out.append(name).append("_bucket{").append(labels).append(labels.isEmpty() ? "" : ",")
+           .append("le=\"+Inf\"} ").append(total).append('\n');
+        out.append(name).append("_sum").append(Metrics.braced(labels)).append(' ').append(sum.sum()).append('\n');
+        out.append(name).append("_count").append(Metrics.braced(labels)).append(' ').append(total).append('\n');
+    }
+}
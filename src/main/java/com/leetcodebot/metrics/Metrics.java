@@ -0,0 +1,119 @@
+package com.leetcodebot.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Supplier;
+
+/**
+ * Process-wide metrics registry rendered in the Prometheus text format by the
+ * {@code /metrics} endpoint. Instruments are identified by name plus label pairs given
+ * as {@code "key", "value", ...}; asking for the same ones again returns the same
+ * instrument, so hot paths can look them up instead of holding references.
+ * Values that components already count themselves are exposed through suppliers.
+ */
+public final class Metrics {
+    private static final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    private Metrics() {
+    }
+
+    public static Histogram histogram(String name, String help, String... labels) {
+        return (Histogram) family(name, help, "histogram").instruments
+            .computeIfAbsent(labelText(labels), key -> new Histogram(Histogram.DEFAULT_BOUNDS));
+    }
+
+    public static Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, "counter").instruments
+            .computeIfAbsent(labelText(labels), key -> new Counter());
+    }
+
+    /**
+     * Registers a counter whose value is read from {@code value} at scrape time,
+     * replacing any earlier registration under the same name and labels.
+     */
+    public static void counter(String name, String help, Supplier<Number> value, String... labels) {
+        family(name, help, "counter").instruments.put(labelText(labels), value);
+    }
+
+    /**
+     * Registers a gauge read from {@code value} at scrape time, replacing any earlier
+     * registration under the same name and labels.
+     */
+    public static void gauge(String name, String help, Supplier<Number> value, String... labels) {
+        family(name, help, "gauge").instruments.put(labelText(labels), value);
+    }
+
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        for (Family family : families.values()) {
+            out.append("# HELP ").append(family.name).append(' ').append(family.help).append('\n');
+            out.append("# TYPE ").append(family.name).append(' ').append(family.type).append('\n');
+            for (Map.Entry<String, Object> entry : family.instruments.entrySet()) {
+                Object instrument = entry.getValue();
+                if (instrument instanceof Histogram histogram) {
+                    histogram.render(out, family.name, entry.getKey());
+                } else if (instrument instanceof Counter counter) {
+                    sample(out, family.name, entry.getKey(), counter.get());
+                } else {
+                    Number value;
+                    try {
+                        value = ((Supplier<?>) instrument).get() instanceof Number number ? number : null;
+                    } catch (RuntimeException e) {
+                        // A failing supplier (e.g. database unavailable) must not break the whole scrape
+                        value = null;
+                    }
+                    if (value != null) {
+                        sample(out, family.name, entry.getKey(), value);
+                    }
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    static String braced(String labels) {
+        return labels.isEmpty() ? "" : "{" + labels + "}";
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Number value) {
+        out.append(name).append(braced(labels)).append(' ').append(value).append('\n');
+    }
+
+    private static Family family(String name, String help, String type) {
+        Family family = families.computeIfAbsent(name, key -> new Family(name, help, type));
+        if (!family.type.equals(type)) {
+            throw new IllegalArgumentException("Metric " + name + " is already registered as a " + family.type);
+        }
+        return family;
+    }
+
+    private static String labelText(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be given as key/value pairs");
+        }
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) {
+                text.append(',');
+            }
+            text.append(labels[i]).append("=\"")
+                .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+        }
+        return text.toString();
+    }
+
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final String type;
+        private final Map<String, Object> instruments = new ConcurrentHashMap<>();
+
+        private Family(String name, String help, String type) {
+            this.name = name;
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
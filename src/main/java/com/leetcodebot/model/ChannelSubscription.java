@@ -0,0 +1,60 @@
+package com.leetcodebot.model;
+
+import jakarta.persistence.*;
+
+/**
+ * One channel a tracked user's solves are announced in, together with the guild the
+ * channel belongs to (null for channels outside a guild), so per-guild lookups are a
+ * single indexed query.
+ */
+@Entity
+@Table(name = "channel_subscription",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "channel_id"}),
+    indexes = {
+        @Index(name = "idx_channel_subscription_guild", columnList = "guild_id, user_id"),
+        @Index(name = "idx_channel_subscription_channel", columnList = "channel_id")
+    })
+public class ChannelSubscription {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private TrackedUser user;
+
+    @Column(name = "guild_id")
+    private String guildId;
+
+    @Column(name = "channel_id", nullable = false)
+    private String channelId;
+
+    public ChannelSubscription() {
+    }
+
+    public ChannelSubscription(TrackedUser user, String guildId, String channelId) {
+        this.user = user;
+        this.guildId = guildId;
+        this.channelId = channelId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public TrackedUser getUser() {
+        return user;
+    }
+
+    public String getGuildId() {
+        return guildId;
+    }
+
+    public void setGuildId(String guildId) {
+        this.guildId = guildId;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+}
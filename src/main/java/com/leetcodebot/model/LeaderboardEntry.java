@@ -0,0 +1,40 @@
+package com.leetcodebot.model;
+
+/**
+ * One user's summed {@link SolveRollup} counts over a leaderboard window.
+ */
+public class LeaderboardEntry {
+    private final String username;
+    private final long easy;
+    private final long medium;
+    private final long hard;
+    private final long total;
+
+    public LeaderboardEntry(String username, Long easy, Long medium, Long hard, Long total) {
+        this.username = username;
+        this.easy = easy;
+        this.medium = medium;
+        this.hard = hard;
+        this.total = total;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public long getEasy() {
+        return easy;
+    }
+
+    public long getMedium() {
+        return medium;
+    }
+
+    public long getHard() {
+        return hard;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,63 @@
+package com.leetcodebot.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "problem_metadata")
+public class ProblemMetadata {
+
+    @Id
+    @Column(name = "title_slug")
+    private String titleSlug;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String difficulty;
+
+    @Column(name = "frontend_id")
+    private String frontendId;
+
+    public ProblemMetadata() {
+    }
+
+    public ProblemMetadata(String titleSlug, String title, String difficulty, String frontendId) {
+        this.titleSlug = titleSlug;
+        this.title = title;
+        this.difficulty = difficulty;
+        this.frontendId = frontendId;
+    }
+
+    public String getTitleSlug() {
+        return titleSlug;
+    }
+
+    public void setTitleSlug(String titleSlug) {
+        this.titleSlug = titleSlug;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(String difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public String getFrontendId() {
+        return frontendId;
+    }
+
+    public void setFrontendId(String frontendId) {
+        this.frontendId = frontendId;
+    }
+}
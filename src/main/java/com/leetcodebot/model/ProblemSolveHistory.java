@@ -6,7 +6,11 @@ import java.time.ZoneId;
 
 @Entity
 @Table(name = "problem_solve_history",
-    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "problem_slug"}))
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "problemSlug"}),
+    indexes = {
+        @Index(name = "idx_problem_solve_history_user_solved", columnList = "user_id, lastSolvedAt"),
+        @Index(name = "idx_problem_solve_history_solved", columnList = "lastSolvedAt")
+    })
 public class ProblemSolveHistory {
     private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
     
@@ -31,9 +35,13 @@ public class ProblemSolveHistory {
     }
 
     public ProblemSolveHistory(TrackedUser user, String problemSlug) {
+        this(user, problemSlug, LocalDateTime.now(TIMEZONE));
+    }
+
+    public ProblemSolveHistory(TrackedUser user, String problemSlug, LocalDateTime solvedAt) {
         this.user = user;
         this.problemSlug = problemSlug;
-        this.lastSolvedAt = LocalDateTime.now(TIMEZONE);
+        this.lastSolvedAt = solvedAt;
     }
 
     public Long getId() {
@@ -77,7 +85,17 @@ public class ProblemSolveHistory {
     }
 
     public void incrementSolveCount() {
+        incrementSolveCount(LocalDateTime.now(TIMEZONE));
+    }
+
+    /**
+     * Counts a solve submitted at {@code solvedAt}; a late-detected older submission does
+     * not move {@code lastSolvedAt} back.
+     */
+    public void incrementSolveCount(LocalDateTime solvedAt) {
         this.solveCount++;
-        this.lastSolvedAt = LocalDateTime.now(TIMEZONE);
+        if (lastSolvedAt == null || solvedAt.isAfter(lastSolvedAt)) {
+            this.lastSolvedAt = solvedAt;
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,51 @@
+package com.leetcodebot.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Entity
+@Table(name = "seen_submissions",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "submission_id"}),
+    indexes = @Index(name = "idx_seen_submissions_seen_at", columnList = "seen_at"))
+public class SeenSubmission {
+    private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "submission_id", nullable = false)
+    private String submissionId;
+
+    @Column(name = "seen_at", nullable = false)
+    private LocalDateTime seenAt;
+
+    public SeenSubmission() {
+    }
+
+    public SeenSubmission(Long userId, String submissionId) {
+        this.userId = userId;
+        this.submissionId = submissionId;
+        this.seenAt = LocalDateTime.now(TIMEZONE);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getSubmissionId() {
+        return submissionId;
+    }
+
+    public LocalDateTime getSeenAt() {
+        return seenAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.leetcodebot.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of a {@link ProblemSolveHistory} row together with its user's
+ * name, used by report queries that do not need managed entities.
+ */
+public class SolveRecord {
+    private final String username;
+    private final String problemSlug;
+    private final LocalDateTime lastSolvedAt;
+
+    public SolveRecord(String username, String problemSlug, LocalDateTime lastSolvedAt) {
+        this.username = username;
+        this.problemSlug = problemSlug;
+        this.lastSolvedAt = lastSolvedAt;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getProblemSlug() {
+        return problemSlug;
+    }
+
+    public LocalDateTime getLastSolvedAt() {
+        return lastSolvedAt;
+    }
+}
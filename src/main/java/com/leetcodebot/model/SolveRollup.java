@@ -0,0 +1,82 @@
+package com.leetcodebot.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Materialized solve counts of one user for one period, split by difficulty. Daily rows
+ * ({@link #DAILY}) count the problems solved on that Warsaw-local day; the single
+ * all-time row ({@link #ALL_TIME}, dated {@link #ALL_TIME_START}) counts distinct
+ * problems ever solved. Rows are only ever incremented, by the poll cycle's writer.
+ * Solves of problems whose difficulty is unknown count towards {@code total} only.
+ */
+@Entity
+@Table(name = "solve_rollup",
+    uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "period_type", "period_start"}),
+    indexes = @Index(name = "idx_solve_rollup_period", columnList = "period_type, period_start, user_id"))
+public class SolveRollup {
+    public static final String DAILY = "D";
+    public static final String ALL_TIME = "A";
+    public static final LocalDate ALL_TIME_START = LocalDate.of(1970, 1, 1);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private TrackedUser user;
+
+    @Column(name = "period_type", nullable = false, length = 1)
+    private String periodType;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(nullable = false)
+    private int easy;
+
+    @Column(nullable = false)
+    private int medium;
+
+    @Column(nullable = false)
+    private int hard;
+
+    @Column(nullable = false)
+    private int total;
+
+    public SolveRollup() {
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public TrackedUser getUser() {
+        return user;
+    }
+
+    public String getPeriodType() {
+        return periodType;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public int getEasy() {
+        return easy;
+    }
+
+    public int getMedium() {
+        return medium;
+    }
+
+    public int getHard() {
+        return hard;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+}
@@ -2,22 +2,27 @@ package com.leetcodebot.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
-import java.time.ZoneId;
 
+/**
+ * One accepted submission, appended when it is detected and never updated. Ids come
+ * from a pooled sequence so inserts can be JDBC-batched.
+ */
 @Entity
-@Table(name = "submission_history")
+@Table(name = "submission_history",
+    indexes = @Index(name = "idx_submission_history_user_solved", columnList = "tracked_user_id, solvedAt"))
 public class SubmissionHistory {
-    private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
-    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "submission_history_seq")
+    @SequenceGenerator(name = "submission_history_seq", sequenceName = "submission_history_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "tracked_user_id", nullable = false)
     private TrackedUser trackedUser;
 
-    @Column(nullable = false)
+    @Column(name = "submission_id")
+    private String submissionId;
+
     private String problemId;
 
     @Column(nullable = false)
@@ -26,7 +31,6 @@ public class SubmissionHistory {
     @Column(nullable = false)
     private String problemSlug;
 
-    @Column(nullable = false)
     private String difficulty;
 
     @Column(nullable = false)
@@ -38,14 +42,16 @@ public class SubmissionHistory {
     public SubmissionHistory() {
     }
 
-    public SubmissionHistory(TrackedUser trackedUser, String problemId, String problemTitle, 
-                           String problemSlug, String difficulty) {
+    public SubmissionHistory(TrackedUser trackedUser, String submissionId, String problemId, String problemTitle,
+                             String problemSlug, String difficulty, String language, LocalDateTime solvedAt) {
         this.trackedUser = trackedUser;
+        this.submissionId = submissionId;
         this.problemId = problemId;
         this.problemTitle = problemTitle;
         this.problemSlug = problemSlug;
         this.difficulty = difficulty;
-        this.solvedAt = LocalDateTime.now(TIMEZONE);
+        this.language = language;
+        this.solvedAt = solvedAt;
     }
 
     // Getters and Setters
@@ -97,6 +103,10 @@ public class SubmissionHistory {
         this.difficulty = difficulty;
     }
 
+    public String getSubmissionId() {
+        return submissionId;
+    }
+
     public LocalDateTime getSolvedAt() {
         return solvedAt;
     }
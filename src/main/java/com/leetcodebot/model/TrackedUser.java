@@ -6,7 +6,8 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "tracked_users")
+@Table(name = "tracked_users",
+    indexes = @Index(name = "idx_tracked_users_active", columnList = "active"))
 public class TrackedUser {
     private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
 
@@ -17,10 +18,8 @@ public class TrackedUser {
     @Column(unique = true, nullable = false)
     private String username;
 
-    @ElementCollection
-    @CollectionTable(name = "user_channels", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "channel_id")
-    private Set<String> channelIds = new HashSet<>();
+    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    private Set<ChannelSubscription> subscriptions = new HashSet<>();
 
     @Column(nullable = false)
     private boolean active = true;
@@ -28,14 +27,16 @@ public class TrackedUser {
     @Column(nullable = false)
     private LocalDateTime lastCheckTime;
 
+    @Column(name = "next_poll_at")
+    private LocalDateTime nextPollAt;
+
     public TrackedUser() {
         this.lastCheckTime = LocalDateTime.now(TIMEZONE);
     }
 
-    public TrackedUser(String username, String channelId) {
+    public TrackedUser(String username, String guildId, String channelId) {
         this.username = username;
-        this.channelIds = new HashSet<>();
-        this.channelIds.add(channelId);
+        this.subscriptions.add(new ChannelSubscription(this, guildId, channelId));
         this.lastCheckTime = LocalDateTime.now(TIMEZONE);
     }
 
@@ -55,20 +56,29 @@ public class TrackedUser {
         this.username = username;
     }
 
-    public Set<String> getChannelIds() {
-        return channelIds;
+    public Set<ChannelSubscription> getSubscriptions() {
+        return subscriptions;
     }
 
-    public void setChannelIds(Set<String> channelIds) {
-        this.channelIds = channelIds;
+    public Set<String> getChannelIds() {
+        Set<String> channelIds = new HashSet<>();
+        for (ChannelSubscription subscription : subscriptions) {
+            channelIds.add(subscription.getChannelId());
+        }
+        return channelIds;
     }
 
-    public void addChannelId(String channelId) {
-        this.channelIds.add(channelId);
+    public void addSubscription(String guildId, String channelId) {
+        for (ChannelSubscription subscription : subscriptions) {
+            if (subscription.getChannelId().equals(channelId)) {
+                return;
+            }
+        }
+        subscriptions.add(new ChannelSubscription(this, guildId, channelId));
     }
 
-    public void removeChannelId(String channelId) {
-        this.channelIds.remove(channelId);
+    public void removeSubscription(String channelId) {
+        subscriptions.removeIf(subscription -> subscription.getChannelId().equals(channelId));
     }
 
     public boolean isActive() {
@@ -87,6 +97,21 @@ public class TrackedUser {
         this.lastCheckTime = lastCheckTime;
     }
 
+    public LocalDateTime getNextPollAt() {
+        return nextPollAt;
+    }
+
+    public void setNextPollAt(LocalDateTime nextPollAt) {
+        this.nextPollAt = nextPollAt;
+    }
+
+    /**
+     * A user without a scheduled poll time (newly tracked or never polled) is always due.
+     */
+    public boolean isPollDue(LocalDateTime now) {
+        return nextPollAt == null || !nextPollAt.isAfter(now);
+    }
+
     public void updateLastCheckTime() {
         this.lastCheckTime = LocalDateTime.now(TIMEZONE);
     }
@@ -0,0 +1,56 @@
+package com.leetcodebot.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * Consecutive Warsaw-local days on which a user had an accepted submission, dated by
+ * when the submissions were made rather than when they were detected. The poll cycle's
+ * writer advances the row on the user's first solve of a day, and the nightly sweep
+ * resets {@code currentStreak} of users who have missed a day.
+ */
+@Entity
+@Table(name = "user_streak",
+    indexes = @Index(name = "idx_user_streak_last_active", columnList = "last_active_date"))
+public class UserStreak {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "current_streak", nullable = false)
+    private int currentStreak;
+
+    @Column(name = "longest_streak", nullable = false)
+    private int longestStreak;
+
+    @Column(name = "last_active_date", nullable = false)
+    private LocalDate lastActiveDate;
+
+    public UserStreak() {
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    /**
+     * The streak as of {@code today}: still running if the user was active today or
+     * yesterday, even when the nightly sweep has not caught up yet.
+     */
+    public int getCurrentStreak(LocalDate today) {
+        return lastActiveDate.isBefore(today.minusDays(1)) ? 0 : currentStreak;
+    }
+
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public LocalDate getLastActiveDate() {
+        return lastActiveDate;
+    }
+}
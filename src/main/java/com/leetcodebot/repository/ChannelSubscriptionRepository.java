@@ -0,0 +1,165 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ChannelSubscriptionRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelSubscriptionRepository.class);
+
+    /**
+     * Returns the channel IDs of every active user, keyed by username, using a single
+     * projection query instead of loading the users with their subscriptions.
+     */
+    public Map<String, Set<String>> findActiveChannelIds() {
+        long start = System.nanoTime();
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            Map<String, Set<String>> channelIds = new LinkedHashMap<>();
+            List<Object[]> rows = entityManager.createQuery(
+                    "SELECT u.username, s.channelId FROM ChannelSubscription s JOIN s.user u WHERE u.active = true",
+                    Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                channelIds.computeIfAbsent((String) row[0], username -> new HashSet<>()).add((String) row[1]);
+            }
+            return channelIds;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+            DatabaseMetrics.timer("find_active_channels").observeNanosSince(start);
+        }
+    }
+
+    /**
+     * Returns the subscriptions of every active user as channel id to guild id (null when
+     * unknown), keyed by user id.
+     */
+    public Map<Long, Map<String, String>> findActiveSubscriptions() {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            Map<Long, Map<String, String>> subscriptions = new HashMap<>();
+            List<Object[]> rows = entityManager.createQuery(
+                    "SELECT u.id, s.channelId, s.guildId FROM ChannelSubscription s JOIN s.user u WHERE u.active = true",
+                    Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                subscriptions.computeIfAbsent((Long) row[0], id -> new HashMap<>()).put((String) row[1], (String) row[2]);
+            }
+            return subscriptions;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    /**
+     * Removes the given channels from every user's subscriptions in one statement and,
+     * in the same transaction, deactivates the users left without any subscription, as
+     * untracking their last channel would. Returns the usernames of the deactivated
+     * users, or null on failure.
+     */
+    public List<String> removeChannels(Collection<String> channelIds) {
+        EntityTransaction transaction = null;
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            transaction = entityManager.getTransaction();
+            transaction.begin();
+            List<Long> affectedUserIds = entityManager.createQuery(
+                    "SELECT DISTINCT s.user.id FROM ChannelSubscription s WHERE s.channelId IN :channelIds", Long.class)
+                    .setParameter("channelIds", channelIds)
+                    .getResultList();
+            entityManager.createQuery("DELETE FROM ChannelSubscription WHERE channelId IN :channelIds")
+                    .setParameter("channelIds", channelIds)
+                    .executeUpdate();
+
+            List<String> deactivated = new ArrayList<>();
+            if (!affectedUserIds.isEmpty()) {
+                List<Object[]> orphans = entityManager.createQuery(
+                        "SELECT u.id, u.username FROM TrackedUser u WHERE u.id IN :userIds AND u.active = true " +
+                        "AND NOT EXISTS (SELECT s.id FROM ChannelSubscription s WHERE s.user = u)",
+                        Object[].class)
+                        .setParameter("userIds", affectedUserIds)
+                        .getResultList();
+                List<Long> orphanIds = new ArrayList<>();
+                for (Object[] orphan : orphans) {
+                    orphanIds.add((Long) orphan[0]);
+                    deactivated.add((String) orphan[1]);
+                }
+                if (!orphanIds.isEmpty()) {
+                    entityManager.createQuery("UPDATE TrackedUser u SET u.active = false WHERE u.id IN :userIds")
+                            .setParameter("userIds", orphanIds)
+                            .executeUpdate();
+                }
+            }
+            transaction.commit();
+            return deactivated;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            logger.error("Failed to remove channels", e);
+            return null;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    /**
+     * Channel ids of subscriptions whose guild is not known yet, i.e. those the V6
+     * migration copied over from the old {@code user_channels} table.
+     */
+    public List<String> findChannelIdsWithoutGuild() {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.createQuery(
+                    "SELECT DISTINCT s.channelId FROM ChannelSubscription s WHERE s.guildId IS NULL", String.class)
+                    .getResultList();
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    public void setGuildIds(Map<String, String> guildIdByChannel) {
+        EntityTransaction transaction = null;
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            transaction = entityManager.getTransaction();
+            transaction.begin();
+            for (Map.Entry<String, String> entry : guildIdByChannel.entrySet()) {
+                entityManager.createQuery(
+                        "UPDATE ChannelSubscription SET guildId = :guildId WHERE channelId = :channelId AND guildId IS NULL")
+                        .setParameter("guildId", entry.getValue())
+                        .setParameter("channelId", entry.getKey())
+                        .executeUpdate();
+            }
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            logger.error("Failed to set subscription guilds", e);
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.metrics.Histogram;
+import com.leetcodebot.metrics.Metrics;
+
+/**
+ * Timers for the database work done on every poll cycle, labelled by operation.
+ */
+class DatabaseMetrics {
+    static Histogram timer(String operation) {
+        return Metrics.histogram("db_transaction_duration_seconds",
+            "Time spent in database transactions and queries", "operation", operation);
+    }
+}
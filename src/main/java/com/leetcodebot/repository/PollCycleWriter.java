@@ -0,0 +1,417 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.ProblemMetadata;
+import com.leetcodebot.model.ProblemSolveHistory;
+import com.leetcodebot.model.SolveRollup;
+import com.leetcodebot.model.SubmissionHistory;
+import com.leetcodebot.model.TrackedUser;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.hibernate.Session;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects everything a poll cycle wants to write (solve upserts, seen submission ids,
+ * last-check and next-poll times) from the concurrent poll tasks, and writes it all in
+ * a single transaction at the end of the cycle. Solve updates and submission log entries
+ * go out as JDBC batches (see {@code hibernate.jdbc.batch_size}), user poll state as one
+ * batched {@code UPDATE} that does not load the users first, and seen ids, leaderboard
+ * rollup increments and streak updates as batched H2 {@code MERGE}s.
+ */
+public class PollCycleWriter {
+    private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
+    private static final String MERGE_SEEN_SUBMISSION =
+        "MERGE INTO seen_submissions (user_id, submission_id, seen_at) KEY (user_id, submission_id) VALUES (?, ?, ?)";
+    private static final String MERGE_ROLLUP =
+        "MERGE INTO solve_rollup r USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS CHAR(1)) AS period_type, " +
+        "CAST(? AS DATE) AS period_start, CAST(? AS INTEGER) AS easy, CAST(? AS INTEGER) AS medium, " +
+        "CAST(? AS INTEGER) AS hard, CAST(? AS INTEGER) AS total) s " +
+        "ON r.user_id = s.user_id AND r.period_type = s.period_type AND r.period_start = s.period_start " +
+        "WHEN MATCHED THEN UPDATE SET easy = r.easy + s.easy, medium = r.medium + s.medium, " +
+        "hard = r.hard + s.hard, total = r.total + s.total " +
+        "WHEN NOT MATCHED THEN INSERT (user_id, period_type, period_start, easy, medium, hard, total) " +
+        "VALUES (s.user_id, s.period_type, s.period_start, s.easy, s.medium, s.hard, s.total)";
+    // A streak grows on an active day right after the last one and restarts after a gap;
+    // days already counted (or older) match no branch and leave the row alone
+    private static final String MERGE_STREAK =
+        "MERGE INTO user_streak s USING (SELECT CAST(? AS BIGINT) AS user_id, CAST(? AS DATE) AS active_date) t " +
+        "ON s.user_id = t.user_id " +
+        "WHEN MATCHED AND s.last_active_date = DATEADD('DAY', -1, t.active_date) THEN UPDATE SET " +
+        "current_streak = s.current_streak + 1, longest_streak = GREATEST(s.longest_streak, s.current_streak + 1), " +
+        "last_active_date = t.active_date " +
+        "WHEN MATCHED AND s.last_active_date < DATEADD('DAY', -1, t.active_date) THEN UPDATE SET " +
+        "current_streak = 1, longest_streak = GREATEST(s.longest_streak, 1), last_active_date = t.active_date " +
+        "WHEN NOT MATCHED THEN INSERT (user_id, current_streak, longest_streak, last_active_date) " +
+        "VALUES (t.user_id, 1, 1, t.active_date)";
+    private static final String UNKNOWN_LANGUAGE = "unknown";
+    private static final String UPDATE_USER_POLL_STATE =
+        "UPDATE tracked_users SET lastCheckTime = COALESCE(CAST(? AS TIMESTAMP), lastCheckTime), " +
+        "next_poll_at = COALESCE(CAST(? AS TIMESTAMP), next_poll_at) WHERE id = ?";
+
+    private final List<DetectedSolve> solves = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, List<String>> seenIds = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> lastCheckTimes = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> nextPollTimes = new ConcurrentHashMap<>();
+    private final Map<String, String> newestSubmissionIds = new ConcurrentHashMap<>();
+
+    public void addSolve(DetectedSolve solve) {
+        solves.add(solve);
+    }
+
+    public void addSeenIds(Long userId, Collection<String> submissionIds) {
+        if (!submissionIds.isEmpty()) {
+            seenIds.computeIfAbsent(userId, id -> Collections.synchronizedList(new ArrayList<>()))
+                   .addAll(submissionIds);
+        }
+    }
+
+    /**
+     * Slugs of the problems solved in this cycle so far.
+     */
+    public Set<String> getSolvedSlugs() {
+        Set<String> slugs = new HashSet<>();
+        synchronized (solves) {
+            for (DetectedSolve solve : solves) {
+                slugs.add(solve.getTitleSlug());
+            }
+        }
+        return slugs;
+    }
+
+    public Map<Long, List<String>> getSeenIds() {
+        return seenIds;
+    }
+
+    public void setLastCheckTime(Long userId, LocalDateTime lastCheckTime) {
+        lastCheckTimes.put(userId, lastCheckTime);
+    }
+
+    public void setNextPollAt(Long userId, LocalDateTime nextPollAt) {
+        nextPollTimes.put(userId, nextPollAt);
+    }
+
+    public Map<Long, LocalDateTime> getLastCheckTimes() {
+        return lastCheckTimes;
+    }
+
+    public Map<Long, LocalDateTime> getNextPollTimes() {
+        return nextPollTimes;
+    }
+
+    /**
+     * Stages the newest submission id of a user's fully processed list, to be remembered
+     * as the user's fingerprint once this cycle has been flushed. Not written to the database.
+     */
+    public void setNewestSubmissionId(String username, String submissionId) {
+        newestSubmissionIds.put(username, submissionId);
+    }
+
+    public Map<String, String> getNewestSubmissionIds() {
+        return newestSubmissionIds;
+    }
+
+    public List<DetectedSolve> flush() {
+        return flush(Map.of());
+    }
+
+    /**
+     * Writes all buffered changes in one transaction and returns the buffered solves in
+     * detection order, each marked as first solve or re-solve. {@code metadataBySlug}
+     * supplies difficulty and frontend id for the submission log and the leaderboard
+     * rollups where known. On failure nothing is written and the exception is rethrown.
+     */
+    public List<DetectedSolve> flush(Map<String, ProblemMetadata> metadataBySlug) {
+        List<DetectedSolve> pendingSolves;
+        synchronized (solves) {
+            pendingSolves = new ArrayList<>(solves);
+        }
+        if (pendingSolves.isEmpty() && seenIds.isEmpty() && lastCheckTimes.isEmpty() && nextPollTimes.isEmpty()) {
+            return pendingSolves;
+        }
+
+        long start = System.nanoTime();
+        EntityTransaction transaction = null;
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            transaction = entityManager.getTransaction();
+            transaction.begin();
+
+            Map<String, RollupDelta> rollups = upsertSolves(entityManager, pendingSolves, metadataBySlug);
+            appendSubmissions(entityManager, pendingSolves, metadataBySlug);
+            mergeRollups(entityManager, rollups.values());
+            mergeStreaks(entityManager, pendingSolves);
+            updateUsers(entityManager);
+            mergeSeenIds(entityManager);
+
+            transaction.commit();
+            return pendingSolves;
+        } catch (RuntimeException e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+            DatabaseMetrics.timer("poll_cycle_flush").observeNanosSince(start);
+        }
+    }
+
+    /**
+     * Upserts the solve history and returns the resulting rollup increments. Solves are
+     * bucketed by the Warsaw-local day they were submitted on, not the day they were
+     * detected: a problem counts towards that day's row unless it was already solved on
+     * that day, and towards the all-time row only when it is solved for the first time.
+     */
+    private Map<String, RollupDelta> upsertSolves(EntityManager entityManager, List<DetectedSolve> pendingSolves,
+                                                  Map<String, ProblemMetadata> metadataBySlug) {
+        Map<String, RollupDelta> rollups = new HashMap<>();
+        if (pendingSolves.isEmpty()) {
+            return rollups;
+        }
+        Set<Long> userIds = new HashSet<>();
+        Set<String> slugs = new HashSet<>();
+        for (DetectedSolve solve : pendingSolves) {
+            userIds.add(solve.getUserId());
+            slugs.add(solve.getTitleSlug());
+        }
+
+        // One query for every existing row the cycle could touch; the IN lists overshoot, so key by pair
+        Map<String, ProblemSolveHistory> existing = new HashMap<>();
+        for (ProblemSolveHistory history : entityManager.createQuery(
+                "FROM ProblemSolveHistory h WHERE h.user.id IN :userIds AND h.problemSlug IN :slugs",
+                ProblemSolveHistory.class)
+                .setParameter("userIds", userIds)
+                .setParameter("slugs", slugs)
+                .getResultList()) {
+            existing.put(key(history.getUser().getId(), history.getProblemSlug()), history);
+        }
+
+        for (DetectedSolve solve : pendingSolves) {
+            String key = key(solve.getUserId(), solve.getTitleSlug());
+            ProblemSolveHistory history = existing.get(key);
+            ProblemMetadata metadata = metadataBySlug.get(solve.getTitleSlug());
+            String difficulty = metadata == null ? null : metadata.getDifficulty();
+            LocalDate day = solve.getSubmittedAt().toLocalDate();
+            if (history != null) {
+                boolean solvedThatDay = history.getLastSolvedAt().toLocalDate().equals(day);
+                history.incrementSolveCount(solve.getSubmittedAt());
+                solve.setResolved(true);
+                if (!solvedThatDay) {
+                    addRollup(rollups, solve.getUserId(), SolveRollup.DAILY, day, difficulty);
+                }
+            } else {
+                history = new ProblemSolveHistory(entityManager.getReference(TrackedUser.class, solve.getUserId()),
+                    solve.getTitleSlug(), solve.getSubmittedAt());
+                entityManager.persist(history);
+                existing.put(key, history);
+                addRollup(rollups, solve.getUserId(), SolveRollup.DAILY, day, difficulty);
+                addRollup(rollups, solve.getUserId(), SolveRollup.ALL_TIME, SolveRollup.ALL_TIME_START, difficulty);
+            }
+        }
+        return rollups;
+    }
+
+    private static void addRollup(Map<String, RollupDelta> rollups, Long userId, String periodType,
+                                  LocalDate periodStart, String difficulty) {
+        rollups.computeIfAbsent(userId + ":" + periodType + ":" + periodStart,
+                k -> new RollupDelta(userId, periodType, periodStart))
+            .add(difficulty);
+    }
+
+    private void mergeRollups(EntityManager entityManager, Collection<RollupDelta> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_ROLLUP)) {
+                for (RollupDelta rollup : rollups) {
+                    statement.setLong(1, rollup.userId);
+                    statement.setString(2, rollup.periodType);
+                    statement.setDate(3, Date.valueOf(rollup.periodStart));
+                    statement.setInt(4, rollup.easy);
+                    statement.setInt(5, rollup.medium);
+                    statement.setInt(6, rollup.hard);
+                    statement.setInt(7, rollup.total);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Advances the streaks of the users with a solve in this cycle by the Warsaw-local
+     * days the solves were submitted on, so a solve detected after midnight still counts
+     * for the day before. One statement per user and day, oldest day first, however many
+     * solves or how long a history the user has.
+     */
+    private void mergeStreaks(EntityManager entityManager, List<DetectedSolve> pendingSolves) {
+        Map<Long, SortedSet<LocalDate>> activeDays = new LinkedHashMap<>();
+        for (DetectedSolve solve : pendingSolves) {
+            activeDays.computeIfAbsent(solve.getUserId(), k -> new TreeSet<>())
+                .add(solve.getSubmittedAt().toLocalDate());
+        }
+        if (activeDays.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_STREAK)) {
+                for (Map.Entry<Long, SortedSet<LocalDate>> user : activeDays.entrySet()) {
+                    for (LocalDate day : user.getValue()) {
+                        statement.setLong(1, user.getKey());
+                        statement.setDate(2, Date.valueOf(day));
+                        statement.addBatch();
+                    }
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private void appendSubmissions(EntityManager entityManager, List<DetectedSolve> pendingSolves,
+                                   Map<String, ProblemMetadata> metadataBySlug) {
+        for (DetectedSolve solve : pendingSolves) {
+            ProblemMetadata metadata = metadataBySlug.get(solve.getTitleSlug());
+            entityManager.persist(new SubmissionHistory(
+                entityManager.getReference(TrackedUser.class, solve.getUserId()),
+                solve.getSubmissionId(),
+                metadata == null ? null : metadata.getFrontendId(),
+                solve.getTitle(),
+                solve.getTitleSlug(),
+                metadata == null ? null : metadata.getDifficulty(),
+                solve.getLanguage() == null ? UNKNOWN_LANGUAGE : solve.getLanguage(),
+                solve.getSubmittedAt()));
+        }
+    }
+
+    private void updateUsers(EntityManager entityManager) {
+        Set<Long> userIds = new HashSet<>(lastCheckTimes.keySet());
+        userIds.addAll(nextPollTimes.keySet());
+        if (userIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(UPDATE_USER_POLL_STATE)) {
+                for (Long userId : userIds) {
+                    statement.setTimestamp(1, timestamp(lastCheckTimes.get(userId)));
+                    statement.setTimestamp(2, timestamp(nextPollTimes.get(userId)));
+                    statement.setLong(3, userId);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private void mergeSeenIds(EntityManager entityManager) {
+        if (seenIds.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        Timestamp seenAt = Timestamp.valueOf(LocalDateTime.now(TIMEZONE));
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_SEEN_SUBMISSION)) {
+                for (Map.Entry<Long, List<String>> entry : seenIds.entrySet()) {
+                    synchronized (entry.getValue()) {
+                        for (String submissionId : entry.getValue()) {
+                            statement.setLong(1, entry.getKey());
+                            statement.setString(2, submissionId);
+                            statement.setTimestamp(3, seenAt);
+                            statement.addBatch();
+                        }
+                    }
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+    private static Timestamp timestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+
+    private static String key(Long userId, String titleSlug) {
+        return userId + ":" + titleSlug;
+    }
+
+    private static class RollupDelta {
+        private final Long userId;
+        private final String periodType;
+        private final LocalDate periodStart;
+        private int easy;
+        private int medium;
+        private int hard;
+        private int total;
+
+        private RollupDelta(Long userId, String periodType, LocalDate periodStart) {
+            this.userId = userId;
+            this.periodType = periodType;
+            this.periodStart = periodStart;
+        }
+
+        private void add(String difficulty) {
+            if ("Easy".equals(difficulty)) {
+                easy++;
+            } else if ("Medium".equals(difficulty)) {
+                medium++;
+            } else if ("Hard".equals(difficulty)) {
+                hard++;
+            }
+            total++;
+        }
+    }
+
+    /**
+     * A newly detected accepted submission, waiting to be persisted and announced.
+     */
+    public static class DetectedSolve {
+        private final Long userId;
+        private final String username;
+        private final String submissionId;
+        private final String title;
+        private final String titleSlug;
+        private final String language;
+        private final LocalDateTime submittedAt;
+        private volatile boolean resolved;
+
+        public DetectedSolve(Long userId, String username, String submissionId, String title, String titleSlug,
+                             String language, LocalDateTime submittedAt) {
+            this.userId = userId;
+            this.username = username;
+            this.submissionId = submissionId;
+            this.title = title;
+            this.titleSlug = titleSlug;
+            this.language = language;
+            this.submittedAt = submittedAt;
+        }
+
+        public Long getUserId() { return userId; }
+        public String getUsername() { return username; }
+        public String getSubmissionId() { return submissionId; }
+        public String getTitle() { return title; }
+        public String getTitleSlug() { return titleSlug; }
+        public String getLanguage() { return language; }
+        public LocalDateTime getSubmittedAt() { return submittedAt; }
+
+        /**
+         * True if the user had already solved this problem before this submission.
+         */
+        public boolean isResolved() { return resolved; }
+
+        void setResolved(boolean resolved) { this.resolved = resolved; }
+    }
+}
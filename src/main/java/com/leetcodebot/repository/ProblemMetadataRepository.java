@@ -0,0 +1,65 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.ProblemMetadata;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class ProblemMetadataRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ProblemMetadataRepository.class);
+
+
+    public Optional<ProblemMetadata> findBySlug(String titleSlug) {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return Optional.ofNullable(entityManager.find(ProblemMetadata.class, titleSlug));
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    public List<ProblemMetadata> findBySlugs(Collection<String> titleSlugs) {
+        if (titleSlugs.isEmpty()) {
+            return List.of();
+        }
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.createQuery(
+                    "FROM ProblemMetadata WHERE titleSlug IN :titleSlugs", ProblemMetadata.class)
+                    .setParameter("titleSlugs", titleSlugs)
+                    .getResultList();
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    public void save(ProblemMetadata metadata) {
+        EntityTransaction transaction = null;
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            transaction = entityManager.getTransaction();
+            transaction.begin();
+            entityManager.merge(metadata);
+            transaction.commit();
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            logger.error("Failed to save problem metadata", e);
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+}
@@ -2,16 +2,23 @@ package com.leetcodebot.repository;
 
 import com.leetcodebot.config.DatabaseConfig;
 import com.leetcodebot.model.ProblemSolveHistory;
+import com.leetcodebot.model.SolveRecord;
 import com.leetcodebot.model.TrackedUser;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
 import jakarta.persistence.NoResultException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class ProblemSolveHistoryRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ProblemSolveHistoryRepository.class);
+
     
     public void saveSolveHistory(ProblemSolveHistory history) {
         EntityTransaction transaction = null;
@@ -25,7 +32,7 @@ public class ProblemSolveHistoryRepository {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            e.printStackTrace();
+            logger.error("Failed to save solve history", e);
         } finally {
             if (entityManager != null) {
                 entityManager.close();
@@ -68,6 +75,55 @@ public class ProblemSolveHistoryRepository {
         }
     }
 
+    /**
+     * Returns the solves of all active users within the time range in a single query,
+     * ordered by username and solve time.
+     */
+    public List<SolveRecord> findActiveSolvesInTimeRange(LocalDateTime start, LocalDateTime end) {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.createQuery(
+                    "SELECT new com.leetcodebot.model.SolveRecord(u.username, h.problemSlug, h.lastSolvedAt) " +
+                    "FROM ProblemSolveHistory h JOIN h.user u " +
+                    "WHERE u.active = true AND h.lastSolvedAt BETWEEN :start AND :end " +
+                    "ORDER BY u.username, h.lastSolvedAt",
+                    SolveRecord.class)
+                    .setParameter("start", start)
+                    .setParameter("end", end)
+                    .getResultList();
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the most recent solve time of every active user who has solved anything,
+     * keyed by username, in a single grouped query.
+     */
+    public Map<String, LocalDateTime> findLastSolvedAtByActiveUser() {
+        long start = System.nanoTime();
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            Map<String, LocalDateTime> lastSolvedAt = new HashMap<>();
+            List<Object[]> rows = entityManager.createQuery(
+                    "SELECT u.username, MAX(h.lastSolvedAt) FROM ProblemSolveHistory h JOIN h.user u " +
+                    "WHERE u.active = true GROUP BY u.username",
+                    Object[].class)
+                    .getResultList();
+            for (Object[] row : rows) {
+                lastSolvedAt.put((String) row[0], (LocalDateTime) row[1]);
+            }
+            return lastSolvedAt;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+            DatabaseMetrics.timer("find_last_solved_at").observeNanosSince(start);
+        }
+    }
+
     public void updateSolveCount(ProblemSolveHistory history) {
         EntityTransaction transaction = null;
         EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
@@ -81,7 +137,7 @@ public class ProblemSolveHistoryRepository {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            e.printStackTrace();
+            logger.error("Failed to update solve count", e);
         } finally {
             if (entityManager != null) {
                 entityManager.close();
@@ -0,0 +1,56 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.SeenSubmission;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class SeenSubmissionRepository {
+    private static final Logger logger = LoggerFactory.getLogger(SeenSubmissionRepository.class);
+
+
+    public List<String> findRecentSubmissionIds(Long userId, int limit) {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.createQuery(
+                    "SELECT s.submissionId FROM SeenSubmission s WHERE s.userId = :userId ORDER BY s.id DESC",
+                    String.class)
+                    .setParameter("userId", userId)
+                    .setMaxResults(limit)
+                    .getResultList();
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    public int deleteSeenBefore(LocalDateTime cutoff) {
+        EntityTransaction transaction = null;
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            transaction = entityManager.getTransaction();
+            transaction.begin();
+            int deleted = entityManager.createQuery("DELETE FROM SeenSubmission WHERE seenAt < :cutoff")
+                    .setParameter("cutoff", cutoff)
+                    .executeUpdate();
+            transaction.commit();
+            return deleted;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            logger.error("Failed to delete old seen submissions", e);
+            return 0;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.LeaderboardEntry;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads the materialized solve rollups. Rows are written by {@link PollCycleWriter}.
+ */
+public class SolveRollupRepository {
+
+    /**
+     * Sums the users' rollup rows of the given type starting on or after {@code from},
+     * most solves first. Users without any such row are left out.
+     */
+    public List<LeaderboardEntry> findLeaderboard(String periodType, LocalDate from, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.createQuery(
+                    "SELECT new com.leetcodebot.model.LeaderboardEntry(u.username, SUM(r.easy), SUM(r.medium), " +
+                    "SUM(r.hard), SUM(r.total)) FROM SolveRollup r JOIN r.user u " +
+                    "WHERE r.periodType = :periodType AND r.periodStart >= :from AND u.id IN :userIds " +
+                    "GROUP BY u.username ORDER BY SUM(r.total) DESC, u.username",
+                    LeaderboardEntry.class)
+                    .setParameter("periodType", periodType)
+                    .setParameter("from", from)
+                    .setParameter("userIds", userIds)
+                    .getResultList();
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+}
@@ -2,9 +2,10 @@ package com.leetcodebot.repository;
 
 import com.leetcodebot.config.DatabaseConfig;
 import com.leetcodebot.model.TrackedUser;
-import com.leetcodebot.model.SubmissionHistory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -12,6 +13,8 @@ import java.util.List;
 import java.util.Optional;
 
 public class TrackedUserRepository {
+    private static final Logger logger = LoggerFactory.getLogger(TrackedUserRepository.class);
+
     
     private static final ZoneId TIMEZONE = ZoneId.of("Europe/Warsaw");
     
@@ -27,27 +30,7 @@ public class TrackedUserRepository {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            e.printStackTrace();
-        } finally {
-            if (entityManager != null) {
-                entityManager.close();
-            }
-        }
-    }
-
-    public void saveSubmission(SubmissionHistory submission) {
-        EntityTransaction transaction = null;
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
-        try {
-            transaction = entityManager.getTransaction();
-            transaction.begin();
-            entityManager.persist(submission);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction != null && transaction.isActive()) {
-                transaction.rollback();
-            }
-            e.printStackTrace();
+            logger.error("Failed to save user", e);
         } finally {
             if (entityManager != null) {
                 entityManager.close();
@@ -72,6 +55,7 @@ public class TrackedUserRepository {
     }
 
     public List<TrackedUser> findAllActive() {
+        long start = System.nanoTime();
         EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
         try {
             return entityManager.createQuery("FROM TrackedUser WHERE active = true", TrackedUser.class)
@@ -80,6 +64,7 @@ public class TrackedUserRepository {
             if (entityManager != null) {
                 entityManager.close();
             }
+            DatabaseMetrics.timer("find_active_users").observeNanosSince(start);
         }
     }
 
@@ -102,25 +87,7 @@ public class TrackedUserRepository {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            e.printStackTrace();
-        } finally {
-            if (entityManager != null) {
-                entityManager.close();
-            }
-        }
-    }
-
-    public List<SubmissionHistory> findSubmissionsByUserAndDateRange(
-            TrackedUser user, LocalDateTime start, LocalDateTime end) {
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
-        try {
-            return entityManager.createQuery(
-                    "FROM SubmissionHistory WHERE trackedUser = :user AND solvedAt BETWEEN :start AND :end",
-                    SubmissionHistory.class)
-                    .setParameter("user", user)
-                    .setParameter("start", start)
-                    .setParameter("end", end)
-                    .getResultList();
+            logger.error("Failed to deactivate user", e);
         } finally {
             if (entityManager != null) {
                 entityManager.close();
@@ -141,11 +108,11 @@ public class TrackedUserRepository {
             if (transaction != null && transaction.isActive()) {
                 transaction.rollback();
             }
-            e.printStackTrace();
+            logger.error("Failed to update last check time", e);
         } finally {
             if (entityManager != null) {
                 entityManager.close();
             }
         }
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,64 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.UserStreak;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityTransaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+
+/**
+ * Reads and sweeps the per-user streak rows. Streaks are advanced by {@link PollCycleWriter}.
+ */
+public class UserStreakRepository {
+    private static final Logger logger = LoggerFactory.getLogger(UserStreakRepository.class);
+
+    /**
+     * Returns the user's streak row, or null if they have never been seen solving anything.
+     */
+    public UserStreak findByUserId(Long userId) {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.find(UserStreak.class, userId);
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+
+    /**
+     * Resets, in one statement, the current streak of every user who was active neither
+     * yesterday nor the day before. The extra day leaves room for solves submitted before
+     * midnight but detected after it; until the sweep catches up,
+     * {@link UserStreak#getCurrentStreak(LocalDate)} already reports such streaks as
+     * broken. Returns the number of streaks broken.
+     */
+    public int breakInactiveStreaks(LocalDate today) {
+        EntityTransaction transaction = null;
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            transaction = entityManager.getTransaction();
+            transaction.begin();
+            int broken = entityManager.createQuery(
+                    "UPDATE UserStreak s SET s.currentStreak = 0 " +
+                    "WHERE s.lastActiveDate < :cutoff AND s.currentStreak > 0")
+                    .setParameter("cutoff", today.minusDays(2))
+                    .executeUpdate();
+            transaction.commit();
+            return broken;
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) {
+                transaction.rollback();
+            }
+            logger.error("Failed to break inactive streaks", e);
+            return 0;
+        } finally {
+            if (entityManager != null) {
+                entityManager.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.leetcodebot.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Derives how often a user should be polled from how recently they last solved
+ * something: users who are actively solving are polled every cycle, while dormant
+ * users back off step by step up to {@code maxInterval}.
+ */
+public class AdaptivePollSchedule {
+    private static final Duration HOT_INTERVAL = Duration.ofMinutes(1);
+
+    private final Duration maxInterval;
+
+    public AdaptivePollSchedule(Duration maxInterval) {
+        this.maxInterval = maxInterval;
+    }
+
+    /**
+     * Returns the delay until the next poll of a user who last solved a problem at
+     * {@code lastSolvedAt} (null if never), as seen at {@code now}.
+     */
+    public Duration intervalFor(LocalDateTime lastSolvedAt, LocalDateTime now) {
+        if (lastSolvedAt == null) {
+            return maxInterval;
+        }
+        Duration idle = Duration.between(lastSolvedAt, now);
+        Duration interval;
+        if (idle.compareTo(Duration.ofHours(1)) < 0) {
+            interval = HOT_INTERVAL;
+        } else if (idle.compareTo(Duration.ofDays(1)) < 0) {
+            interval = Duration.ofMinutes(5);
+        } else if (idle.compareTo(Duration.ofDays(7)) < 0) {
+            interval = Duration.ofMinutes(15);
+        } else {
+            interval = maxInterval;
+        }
+        return interval.compareTo(maxInterval) > 0 ? maxInterval : interval;
+    }
+
+    /**
+     * Interval used right after a solve was detected, so the user snaps back to fast polling.
+     */
+    public Duration afterSolve() {
+        return HOT_INTERVAL;
+    }
+}
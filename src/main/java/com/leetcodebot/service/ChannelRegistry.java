@@ -0,0 +1,134 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.repository.ChannelSubscriptionRepository;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.events.channel.ChannelDeleteEvent;
+import net.dv8tion.jda.api.events.guild.GuildLeaveEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resolves tracked channel ids through JDA and remembers which guild each belongs to.
+ * Channels that are deleted, or belong to a guild the bot left, are collected as dead
+ * and removed from every user's subscriptions in one batch by {@link #pruneDeadChannels()};
+ * users left without any channel stop being tracked.
+ */
+public class ChannelRegistry extends ListenerAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(ChannelRegistry.class);
+
+    private final JDA jda;
+    private final ChannelSubscriptionRepository subscriptionRepository;
+    private final TrackedUserRegistry userRegistry;
+    private final Map<String, String> guildByChannel = new ConcurrentHashMap<>();
+    private final Set<String> deadChannels = ConcurrentHashMap.newKeySet();
+
+    public ChannelRegistry(JDA jda, ChannelSubscriptionRepository subscriptionRepository,
+                           TrackedUserRegistry userRegistry) {
+        this.jda = jda;
+        this.subscriptionRepository = subscriptionRepository;
+        this.userRegistry = userRegistry;
+    }
+
+    /**
+     * Returns the channel, or null if it does not exist (anymore). A channel missing from
+     * a fully connected JDA cache is remembered as dead.
+     */
+    public MessageChannel getChannel(String channelId) {
+        MessageChannel channel = jda.getChannelById(MessageChannel.class, channelId);
+        if (channel == null) {
+            markDeadIfCacheComplete(channelId);
+            return null;
+        }
+        if (channel instanceof GuildChannel guildChannel) {
+            guildByChannel.putIfAbsent(channelId, guildChannel.getGuild().getId());
+        }
+        return channel;
+    }
+
+    /**
+     * Returns the id of the guild the channel belongs to, or null for unknown and
+     * non-guild channels.
+     */
+    public String getGuildId(String channelId) {
+        String guildId = guildByChannel.get(channelId);
+        if (guildId != null) {
+            return guildId;
+        }
+        GuildChannel channel = jda.getChannelById(GuildChannel.class, channelId);
+        if (channel == null) {
+            markDeadIfCacheComplete(channelId);
+            return null;
+        }
+        guildId = channel.getGuild().getId();
+        guildByChannel.put(channelId, guildId);
+        return guildId;
+    }
+
+    @Override
+    public void onChannelDelete(ChannelDeleteEvent event) {
+        String channelId = event.getChannel().getId();
+        guildByChannel.remove(channelId);
+        deadChannels.add(channelId);
+    }
+
+    @Override
+    public void onGuildLeave(GuildLeaveEvent event) {
+        String guildId = event.getGuild().getId();
+        for (GuildChannel channel : event.getGuild().getChannels()) {
+            deadChannels.add(channel.getId());
+        }
+        guildByChannel.entrySet().removeIf(entry -> {
+            if (entry.getValue().equals(guildId)) {
+                deadChannels.add(entry.getKey());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Removes all channels found dead since the last call from users' subscriptions and
+     * deactivates the users who were tracked in those channels only.
+     */
+    public void pruneDeadChannels() {
+        if (deadChannels.isEmpty()) {
+            return;
+        }
+        List<String> channelIds = new ArrayList<>(deadChannels);
+        List<String> deactivated = subscriptionRepository.removeChannels(channelIds);
+        if (deactivated != null) {
+            userRegistry.removeChannels(channelIds);
+            for (String username : deactivated) {
+                userRegistry.remove(username);
+            }
+            deadChannels.removeAll(channelIds);
+            logger.info("Pruned {} dead channels, stopped tracking {} users left without a channel",
+                channelIds.size(), deactivated.size());
+        }
+    }
+
+    public int getCachedChannels() {
+        return guildByChannel.size();
+    }
+
+    public int getPendingDeadChannels() {
+        return deadChannels.size();
+    }
+
+    private void markDeadIfCacheComplete(String channelId) {
+        // While connecting or during a guild outage a missing channel may just not be cached yet
+        if (jda.getStatus() == JDA.Status.CONNECTED && jda.getUnavailableGuilds().isEmpty()) {
+            guildByChannel.remove(channelId);
+            deadChannels.add(channelId);
+        }
+    }
+}
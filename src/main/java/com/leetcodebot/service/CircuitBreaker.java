@@ -0,0 +1,95 @@
+package com.leetcodebot.service;
+
+/**
+ * Opens after {@code failureThreshold} consecutive failed calls and stays open for
+ * {@code openMillis}, during which callers should not talk to the remote side at all.
+ * Once the period is over the breaker is half-open: {@link #tryAcquire} lets exactly one
+ * call through as a trial and refuses the rest. Success of the trial closes the breaker
+ * and clears the failure count, failure opens it again for another period. A trial that
+ * never reports back is given up after {@code openMillis} so the breaker cannot stick.
+ */
+public class CircuitBreaker {
+    private final int failureThreshold;
+    private final long openMillis;
+    private int consecutiveFailures;
+    private long openUntil;
+    private long trialStartedAt;
+    private long timesOpened;
+
+    public CircuitBreaker(int failureThreshold, long openMillis) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Circuit breaker threshold must be at least 1, got " + failureThreshold);
+        }
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * True while calls are refused: during the open period and while a half-open trial
+     * call is outstanding.
+     */
+    public synchronized boolean isOpen() {
+        long now = System.currentTimeMillis();
+        return now < openUntil || isTrialInFlight(now);
+    }
+
+    /**
+     * Returns whether a call may be made now. When the breaker is half-open the caller
+     * that gets {@code true} makes the trial call and must report its outcome.
+     */
+    public synchronized boolean tryAcquire() {
+        long now = System.currentTimeMillis();
+        if (now < openUntil || isTrialInFlight(now)) {
+            return false;
+        }
+        if (consecutiveFailures >= failureThreshold) {
+            trialStartedAt = now;
+        }
+        return true;
+    }
+
+    public synchronized long getRemainingOpenMillis() {
+        return Math.max(0, openUntil - System.currentTimeMillis());
+    }
+
+    public synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        trialStartedAt = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (trialStartedAt != 0) {
+            open(openMillis);
+        } else if (consecutiveFailures >= failureThreshold && System.currentTimeMillis() >= openUntil) {
+            open(openMillis);
+        }
+    }
+
+    /**
+     * Opens the breaker for at least {@code millis}, e.g. when the remote side asked us
+     * to stay away for longer than we are willing to wait inline.
+     */
+    public synchronized void openFor(long millis) {
+        consecutiveFailures = Math.max(consecutiveFailures, failureThreshold);
+        open(Math.max(millis, getRemainingOpenMillis()));
+    }
+
+    public synchronized long getTimesOpened() {
+        return timesOpened;
+    }
+
+    private boolean isTrialInFlight(long now) {
+        return trialStartedAt != 0 && now < trialStartedAt + openMillis;
+    }
+
+    private void open(long millis) {
+        long now = System.currentTimeMillis();
+        // Extending a period that is still running is not a new opening
+        if (now >= openUntil) {
+            timesOpened++;
+        }
+        openUntil = now + millis;
+        trialStartedAt = 0;
+    }
+}
@@ -0,0 +1,58 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.model.ProblemMetadata;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Running tally of the distinct problems each user solved per Warsaw-local day,
+ * updated as solves are detected so the daily report can be rendered without
+ * scanning solve history. Only the days that have not been reported yet are kept.
+ */
+public class DailySolveAggregator {
+    private final Map<LocalDate, Map<String, UserDay>> days = new ConcurrentHashMap<>();
+
+    /**
+     * Records a solve. {@code metadata} may be null when it could not be resolved yet;
+     * a later record of the same problem with metadata fills it in.
+     */
+    public void record(LocalDate day, String username, String titleSlug, ProblemMetadata metadata) {
+        days.computeIfAbsent(day, d -> new ConcurrentHashMap<>())
+            .computeIfAbsent(username, u -> new UserDay())
+            .add(titleSlug, metadata);
+    }
+
+    public Map<String, UserDay> getDay(LocalDate day) {
+        Map<String, UserDay> users = days.get(day);
+        return users == null ? Map.of() : users;
+    }
+
+    public void evictBefore(LocalDate day) {
+        days.keySet().removeIf(d -> d.isBefore(day));
+    }
+
+    public static class UserDay {
+        private final Map<String, ProblemMetadata> problems = new LinkedHashMap<>();
+
+        private synchronized void add(String titleSlug, ProblemMetadata metadata) {
+            if (metadata != null || !problems.containsKey(titleSlug)) {
+                problems.put(titleSlug, metadata);
+            }
+        }
+
+        public synchronized int getTotal() {
+            return problems.size();
+        }
+
+        /**
+         * Returns a copy of the solved problems keyed by slug, in solve order. Values are
+         * null for problems whose metadata is still unknown.
+         */
+        public synchronized Map<String, ProblemMetadata> getProblems() {
+            return new LinkedHashMap<>(problems);
+        }
+    }
+}
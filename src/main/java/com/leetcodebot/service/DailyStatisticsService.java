@@ -1,16 +1,17 @@
 package com.leetcodebot.service;
 
 import net.dv8tion.jda.api.EmbedBuilder;
+import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.MessageEmbed;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
-import com.leetcodebot.repository.TrackedUserRepository;
+import com.leetcodebot.repository.ChannelSubscriptionRepository;
 import com.leetcodebot.repository.ProblemSolveHistoryRepository;
-import com.leetcodebot.model.TrackedUser;
-import com.leetcodebot.model.ProblemSolveHistory;
-import net.dv8tion.jda.api.JDA;
-import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.ProblemMetadata;
+import com.leetcodebot.model.SolveRecord;
 
 import java.awt.Color;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
@@ -21,31 +22,39 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import jakarta.persistence.EntityManager;
 
 public class DailyStatisticsService {
     private static final Logger logger = LoggerFactory.getLogger(DailyStatisticsService.class);
-    private final LeetCodeService leetCodeService;
-    private final TrackedUserRepository userRepository;
+    private final ProblemMetadataService problemMetadataService;
+    private final ChannelSubscriptionRepository subscriptionRepository;
     private final ProblemSolveHistoryRepository solveHistoryRepository;
     private final ScheduledExecutorService scheduler;
-    private final Map<String, Set<String>> userChannels = new HashMap<>();
-    private final Map<String, Set<String>> dailySubmissions = new HashMap<>();
-    private final JDA jda;
+    private final DailySolveAggregator aggregator = new DailySolveAggregator();
+    private final ChannelRegistry channelRegistry;
     private final ZoneId timezone;
-
-    public DailyStatisticsService(LeetCodeService leetCodeService, JDA jda) {
-        this.leetCodeService = leetCodeService;
-        this.userRepository = new TrackedUserRepository();
+    private final Duration reportDelay;
+
+    /**
+     * {@code reportDelay} is how long after midnight the report for the previous day is
+     * sent, so that solves submitted just before midnight have been detected by then.
+     */
+    public DailyStatisticsService(ProblemMetadataService problemMetadataService, ChannelRegistry channelRegistry,
+                                  Duration reportDelay) {
+        this.problemMetadataService = problemMetadataService;
+        this.reportDelay = reportDelay;
+        this.subscriptionRepository = new ChannelSubscriptionRepository();
         this.solveHistoryRepository = new ProblemSolveHistoryRepository();
         this.scheduler = Executors.newScheduledThreadPool(1);
-        this.jda = jda;
+        this.channelRegistry = channelRegistry;
         
         // Set timezone to Europe/Warsaw
         this.timezone = ZoneId.of("Europe/Warsaw");
         logger.info("DailyStatisticsService initialized with timezone: {}", timezone);
+
+        // Restore the running tallies of the days not reported yet
+        rebuildAggregate();
         
-        // Schedule daily report at midnight
+        // Schedule the daily report shortly after midnight
         scheduleDaily();
     }
 
@@ -57,43 +66,48 @@ public class DailyStatisticsService {
         // No need to do anything here as user tracking is handled by TrackedUserRepository
     }
 
-    public void recordSubmission(String username, String problemId, String title, String difficulty) {
-        // This is now handled by ProblemSolveHistoryRepository in SubmissionTracker
+    /**
+     * Records a solve on the Warsaw-local day it was submitted, which for a solve
+     * detected shortly after midnight is the day before.
+     */
+    public void recordSubmission(String username, String titleSlug, LocalDateTime submittedAt) {
+        aggregator.record(submittedAt.toLocalDate(), username, titleSlug, resolveMetadata(titleSlug));
     }
 
-    private void scheduleDaily() {
+    private void rebuildAggregate() {
         try {
-            LocalDateTime now = LocalDateTime.now(timezone);
-            LocalDateTime startOfDay = now.minusDays(1).toLocalDate().atStartOfDay();
-            LocalDateTime endOfDay = startOfDay.plusDays(1);
-            
-            long initialDelay = endOfDay.atZone(timezone).toInstant().toEpochMilli() - 
-                              System.currentTimeMillis();
+            LocalDateTime start = LocalDate.now(timezone).minusDays(1).atStartOfDay();
+            LocalDateTime end = LocalDateTime.now(timezone);
+
+            List<SolveRecord> solves = solveHistoryRepository.findActiveSolvesInTimeRange(start, end);
 
-            logger.info("Scheduling daily report. Current time: {}, Next run: {}, Initial delay: {} ms, Timezone: {}",
-                now, endOfDay, initialDelay, timezone);
+            // Resolve metadata of all known problems in one query before walking the solutions
+            problemMetadataService.preload(solves.stream()
+                .map(SolveRecord::getProblemSlug)
+                .collect(Collectors.toSet()));
 
-            if (initialDelay < 0) {
-                logger.error("Initial delay is negative: {} ms. This should not happen!", initialDelay);
-                initialDelay = 0;
+            for (SolveRecord solve : solves) {
+                aggregator.record(solve.getLastSolvedAt().toLocalDate(), solve.getUsername(),
+                    solve.getProblemSlug(), resolveMetadata(solve.getProblemSlug()));
             }
+            logger.info("Rebuilt daily aggregate from {} solves since {}", solves.size(), start);
+        } catch (Exception e) {
+            logger.error("Failed to rebuild daily aggregate", e);
+        }
+    }
 
-            scheduler.scheduleAtFixedRate(
-                () -> {
-                    try {
-                        logger.info("Starting daily report generation at {} ({})", 
-                            LocalDateTime.now(timezone), timezone);
-                        sendDailyReports();
-                    } catch (Exception e) {
-                        logger.error("Error while generating daily report", e);
-                        e.printStackTrace();
-                    }
-                },
-                initialDelay,
-                TimeUnit.DAYS.toMillis(1),
-                TimeUnit.MILLISECONDS
-            );
-            
+    private ProblemMetadata resolveMetadata(String titleSlug) {
+        try {
+            return problemMetadataService.getMetadata(titleSlug);
+        } catch (Exception e) {
+            logger.error("Error getting problem metadata for {}", titleSlug, e);
+            return null;
+        }
+    }
+
+    private void scheduleDaily() {
+        try {
+            scheduleNextReport();
             logger.info("Successfully scheduled daily report task");
             
             // Add a one-time task to verify the scheduler is running
@@ -103,97 +117,126 @@ public class DailyStatisticsService {
             
         } catch (Exception e) {
             logger.error("Failed to schedule daily report task", e);
-            e.printStackTrace();
         }
     }
 
+    // Scheduled one day at a time so the report keeps firing just after local midnight across DST changes
+    private void scheduleNextReport() {
+        LocalDateTime now = LocalDateTime.now(timezone);
+        LocalDateTime nextRun = now.toLocalDate().atStartOfDay().plus(reportDelay);
+        if (!nextRun.isAfter(now)) {
+            nextRun = now.toLocalDate().plusDays(1).atStartOfDay().plus(reportDelay);
+        }
+        
+        long initialDelay = nextRun.atZone(timezone).toInstant().toEpochMilli() - 
+                          System.currentTimeMillis();
+
+        logger.info("Scheduling daily report. Current time: {}, Next run: {}, Initial delay: {} ms, Timezone: {}",
+            now, nextRun, initialDelay, timezone);
+
+        if (initialDelay < 0) {
+            logger.error("Initial delay is negative: {} ms. This should not happen!", initialDelay);
+            initialDelay = 0;
+        }
+
+        scheduler.schedule(
+            () -> {
+                try {
+                    logger.info("Starting daily report generation at {} ({})", 
+                        LocalDateTime.now(timezone), timezone);
+                    sendDailyReports();
+                } catch (Exception e) {
+                    logger.error("Error while generating daily report", e);
+                } finally {
+                    scheduleNextReport();
+                }
+            },
+            initialDelay,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
     private void sendDailyReports() {
         logger.info("Entering sendDailyReports() at {}", LocalDateTime.now(timezone));
-        LocalDateTime now = LocalDateTime.now(timezone);
-        LocalDateTime startOfDay = now.minusDays(1).toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = startOfDay.plusDays(1);
+        LocalDate reportDay = LocalDate.now(timezone).minusDays(1);
+        Map<String, DailySolveAggregator.UserDay> dayStats = aggregator.getDay(reportDay);
 
-        EntityManager entityManager = null;
         try {
-            entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
-            entityManager.getTransaction().begin();
-
-            // Get all active users with their channel IDs eagerly loaded
-            List<TrackedUser> activeUsers = entityManager.createQuery(
-                "FROM TrackedUser u LEFT JOIN FETCH u.channelIds WHERE u.active = true",
-                TrackedUser.class
-            ).getResultList();
+            // Active users and their channels in a single projection query
+            Map<String, Set<String>> channelsByUser = subscriptionRepository.findActiveChannelIds();
             
-            logger.info("Found {} active users", activeUsers.size());
+            logger.info("Found {} active users", channelsByUser.size());
 
-            if (activeUsers.isEmpty()) {
+            if (channelsByUser.isEmpty()) {
                 logger.info("No active users found, skipping daily report");
                 return;
             }
 
-            // Collect statistics for each user
+            // Collect statistics for each user from the running aggregate
             Map<String, Integer> totalSolvedCount = new HashMap<>();
             Map<String, Map<String, List<Map<String, String>>>> allUserStats = new HashMap<>();
 
-            for (TrackedUser user : activeUsers) {
-                List<ProblemSolveHistory> todaysSolutions = solveHistoryRepository.findByUserInTimeRange(
-                    user, startOfDay, endOfDay);
-                
-                logger.info("User {} has {} solutions today", user.getUsername(), todaysSolutions.size());
-
-                if (!todaysSolutions.isEmpty()) {
-                    Map<String, List<Map<String, String>>> userStats = new HashMap<>();
-                    userStats.put("Easy", new ArrayList<>());
-                    userStats.put("Medium", new ArrayList<>());
-                    userStats.put("Hard", new ArrayList<>());
-
-                    for (ProblemSolveHistory solution : todaysSolutions) {
-                        try {
-                            String difficulty = leetCodeService.getProblemDifficulty(solution.getProblemSlug());
-                            Map<String, String> problemInfo = new HashMap<>();
-                            problemInfo.put("id", solution.getId().toString());
-                            problemInfo.put("title", solution.getProblemSlug());
-                            problemInfo.put("titleSlug", solution.getProblemSlug());
-                            
-                            userStats.get(difficulty).add(problemInfo);
-                        } catch (Exception e) {
-                            logger.error("Error getting problem difficulty for {}", solution.getProblemSlug(), e);
-                        }
+            for (String username : channelsByUser.keySet()) {
+                DailySolveAggregator.UserDay userDay = dayStats.get(username);
+                if (userDay == null || userDay.getTotal() == 0) {
+                    continue;
+                }
+                logger.info("User {} has {} solutions on {}", username, userDay.getTotal(), reportDay);
+
+                Map<String, List<Map<String, String>>> userStats = new HashMap<>();
+                userStats.put("Easy", new ArrayList<>());
+                userStats.put("Medium", new ArrayList<>());
+                userStats.put("Hard", new ArrayList<>());
+
+                for (Map.Entry<String, ProblemMetadata> solution : userDay.getProblems().entrySet()) {
+                    ProblemMetadata metadata = solution.getValue() != null
+                        ? solution.getValue()
+                        : resolveMetadata(solution.getKey());
+                    if (metadata == null || !userStats.containsKey(metadata.getDifficulty())) {
+                        continue;
                     }
+                    Map<String, String> problemInfo = new HashMap<>();
+                    problemInfo.put("id", solution.getKey());
+                    problemInfo.put("title", metadata.getTitle());
+                    problemInfo.put("titleSlug", solution.getKey());
 
-                    allUserStats.put(user.getUsername(), userStats);
-                    totalSolvedCount.put(user.getUsername(), todaysSolutions.size());
+                    userStats.get(metadata.getDifficulty()).add(problemInfo);
                 }
+
+                allUserStats.put(username, userStats);
+                totalSolvedCount.put(username, userDay.getTotal());
             }
 
+            // The reported day will not receive any more solves
+            aggregator.evictBefore(reportDay.plusDays(1));
+
             // Skip if no submissions
             if (totalSolvedCount.isEmpty()) {
-                logger.info("No submissions found for any user today, skipping daily report");
+                logger.info("No submissions found for any user on {}, skipping daily report", reportDay);
                 return;
             }
 
             // Create and send the report
             List<MessageEmbed> report = createCombinedDailyReport(allUserStats, totalSolvedCount);
 
-            // Collect all unique channel IDs while still in transaction
-            Set<String> allChannelIds = activeUsers.stream()
-                .flatMap(user -> user.getChannelIds().stream())
+            // Collect all unique channel IDs
+            Set<String> allChannelIds = channelsByUser.values().stream()
+                .flatMap(Set::stream)
                 .collect(Collectors.toSet());
 
-            // Commit the transaction before sending Discord messages
-            entityManager.getTransaction().commit();
-
             // Send to all unique channels
             logger.info("Sending daily report to {} channels", allChannelIds.size());
             
             for (String channelId : allChannelIds) {
-                MessageChannel channel = findChannelById(channelId);
+                MessageChannel channel = channelRegistry.getChannel(channelId);
                 if (channel != null) {
                     logger.info("Sending report to channel {}", channelId);
-                    channel.sendMessageEmbeds(report).queue(
-                        success -> logger.info("Successfully sent report to channel {}", channelId),
-                        error -> logger.error("Failed to send report to channel {}", channelId, error)
-                    );
+                    for (List<MessageEmbed> message : splitIntoMessages(report)) {
+                        channel.sendMessageEmbeds(message).queue(
+                            success -> logger.info("Successfully sent report to channel {}", channelId),
+                            error -> logger.error("Failed to send report to channel {}", channelId, error)
+                        );
+                    }
                 } else {
                     logger.error("Could not find channel with ID {}", channelId);
                 }
@@ -202,17 +245,10 @@ public class DailyStatisticsService {
 
         } catch (Exception e) {
             logger.error("Error while generating daily report", e);
-            if (entityManager != null && entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
-        } finally {
-            if (entityManager != null) {
-                entityManager.close();
-            }
         }
     }
 
-    private List<MessageEmbed> createCombinedDailyReport(
+    static List<MessageEmbed> createCombinedDailyReport(
             Map<String, Map<String, List<Map<String, String>>>> allUserStats,
             Map<String, Integer> totalSolvedCount) {
         
@@ -238,15 +274,16 @@ public class DailyStatisticsService {
         }
 
         // Add leaderboard
-        StringBuilder leaderboard = new StringBuilder();
+        List<String> leaderboardLines = new ArrayList<>();
         for (int i = 0; i < sortedUsers.size(); i++) {
             Map.Entry<String, Integer> entry = sortedUsers.get(i);
-            leaderboard.append(String.format("%d. **%s**: %d problems\n",
+            leaderboardLines.add(String.format("%d. **%s**: %d problems\n",
                 i + 1, entry.getKey(), entry.getValue()));
         }
+        String leaderboard = joinWithinFieldLimit(leaderboardLines);
 
         if (leaderboard.length() > 0) {
-            leaderboardEmbed.addField("📊 Leaderboard", leaderboard.toString(), false);
+            leaderboardEmbed.addField("📊 Leaderboard", leaderboard, false);
         }
 
         embeds.add(leaderboardEmbed.build());
@@ -266,16 +303,16 @@ public class DailyStatisticsService {
                 List<Map<String, String>> problems = difficultyEntry.getValue();
 
                 if (!problems.isEmpty()) {
-                    StringBuilder problemList = new StringBuilder();
+                    List<String> problemLines = new ArrayList<>();
                     for (Map<String, String> problem : problems) {
-                        problemList.append(String.format("• [%s](https://leetcode.com/problems/%s/)\n",
+                        problemLines.add(String.format("• [%s](https://leetcode.com/problems/%s/)\n",
                             problem.get("title"),
                             problem.get("titleSlug")));
                     }
 
                     userEmbed.addField(
                         String.format("%s (%d)", difficulty, problems.size()),
-                        problemList.toString(),
+                        joinWithinFieldLimit(problemLines),
                         true
                     );
                 }
@@ -287,7 +324,40 @@ public class DailyStatisticsService {
         return embeds;
     }
 
-    private MessageChannel findChannelById(String channelId) {
-        return jda.getChannelById(MessageChannel.class, channelId);
+    // Embed field values are capped by Discord; lines that do not fit are summarized
+    private static String joinWithinFieldLimit(List<String> lines) {
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < lines.size(); i++) {
+            String more = String.format("…and %d more", lines.size() - i);
+            boolean isLast = i == lines.size() - 1;
+            int reserved = isLast ? 0 : more.length();
+            if (joined.length() + lines.get(i).length() + reserved > MessageEmbed.VALUE_MAX_LENGTH) {
+                joined.append(more);
+                break;
+            }
+            joined.append(lines.get(i));
+        }
+        return joined.toString();
+    }
+
+    // A single message may carry at most 10 embeds totalling at most 6000 characters
+    static List<List<MessageEmbed>> splitIntoMessages(List<MessageEmbed> embeds) {
+        List<List<MessageEmbed>> messages = new ArrayList<>();
+        List<MessageEmbed> current = new ArrayList<>();
+        int currentLength = 0;
+        for (MessageEmbed embed : embeds) {
+            if (!current.isEmpty() && (current.size() == Message.MAX_EMBED_COUNT ||
+                    currentLength + embed.getLength() > MessageEmbed.EMBED_MAX_LENGTH_BOT)) {
+                messages.add(current);
+                current = new ArrayList<>();
+                currentLength = 0;
+            }
+            current.add(embed);
+            currentLength += embed.getLength();
+        }
+        if (!current.isEmpty()) {
+            messages.add(current);
+        }
+        return messages;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.model.LeaderboardEntry;
+import com.leetcodebot.model.SolveRollup;
+import com.leetcodebot.repository.SolveRollupRepository;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ranks a guild's tracked users by solves over a period, reading only the rollup rows
+ * the solve-recording path keeps up to date: at most 30 daily rows or one all-time row
+ * per user, however much history there is.
+ */
+public class LeaderboardService {
+    private final SolveRollupRepository rollupRepository;
+    private final TrackedUserRegistry userRegistry;
+    private final ZoneId timezone;
+
+    public enum Period {
+        /** The last 7 days including today. */
+        WEEK(7),
+        /** The last 30 days including today. */
+        MONTH(30),
+        /** Distinct problems ever solved. */
+        ALL(0);
+
+        private final int days;
+
+        Period(int days) {
+            this.days = days;
+        }
+
+        public static Period fromOption(String option) {
+            return option == null ? WEEK : valueOf(option.toUpperCase());
+        }
+    }
+
+    public LeaderboardService(SolveRollupRepository rollupRepository, TrackedUserRegistry userRegistry, ZoneId timezone) {
+        this.rollupRepository = rollupRepository;
+        this.userRegistry = userRegistry;
+        this.timezone = timezone;
+    }
+
+    public List<LeaderboardEntry> getLeaderboard(String guildId, Period period) {
+        Set<Long> userIds = userRegistry.getUserIdsInGuild(guildId);
+        if (period == Period.ALL) {
+            return rollupRepository.findLeaderboard(SolveRollup.ALL_TIME, SolveRollup.ALL_TIME_START, userIds);
+        }
+        LocalDate from = LocalDate.now(timezone).minusDays(period.days - 1);
+        return rollupRepository.findLeaderboard(SolveRollup.DAILY, from, userIds);
+    }
+}
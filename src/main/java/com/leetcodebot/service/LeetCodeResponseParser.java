@@ -0,0 +1,253 @@
+package com.leetcodebot.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.leetcodebot.model.ProblemMetadata;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streams LeetCode GraphQL responses straight from the response body into
+ * {@link LeetCodeService.Submission} lists and {@link ProblemMetadata}, without
+ * building an intermediate String or JSON tree. Unknown fields are skipped.
+ */
+class LeetCodeResponseParser {
+    private static final Logger logger = LoggerFactory.getLogger(LeetCodeResponseParser.class);
+
+    private final JsonFactory jsonFactory;
+
+    LeetCodeResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    List<LeetCodeService.Submission> parseRecentSubmissions(InputStream body) throws IOException {
+        SubmissionListsResponse response = parseSubmissionLists(body, alias -> alias, null);
+        if (!response.errors.isEmpty()) {
+            throw apiError(response.errors.get(0).message);
+        }
+        return response.lists.getOrDefault("recentAcSubmissionList", new ArrayList<>());
+    }
+
+    /**
+     * Parses a batch response whose fields are aliased {@code u0}, {@code u1}, ... in
+     * the order of {@code usernames}. Users whose field is missing or null are left out.
+     * Users whose newest submission matches their fingerprint get an empty list without
+     * the rest of their list being mapped.
+     */
+    Map<String, List<LeetCodeService.Submission>> parseRecentSubmissionsBatch(InputStream body,
+                                                                           List<String> usernames,
+                                                                           SubmissionFingerprints fingerprints) throws IOException {
+        SubmissionListsResponse response = parseSubmissionLists(body, alias -> usernameForAlias(alias, usernames),
+            fingerprints);
+        if (!response.hasData) {
+            throw apiError(response.errors.isEmpty() ? "Unknown error" : response.errors.get(0).message);
+        }
+        for (GraphQLError error : response.errors) {
+            logger.warn("LeetCode API error for {}: {}", error.path, error.message);
+        }
+
+        Map<String, List<LeetCodeService.Submission>> result = new LinkedHashMap<>();
+        for (String username : usernames) {
+            List<LeetCodeService.Submission> submissions = response.lists.get(username);
+            if (submissions != null) {
+                result.put(username, submissions);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * GraphQL reports an expired session as a regular error with a 200 status, so the
+     * message is the only way to tell it apart from a failed query.
+     */
+    private static IOException apiError(String message) {
+        String lower = message.toLowerCase(Locale.ROOT);
+        if (lower.contains("authenticat") || lower.contains("not logged in") || lower.contains("csrf")) {
+            return new SessionExpiredException("LeetCode API error: " + message);
+        }
+        return new IOException("LeetCode API error: " + message);
+    }
+
+    private static String usernameForAlias(String alias, List<String> usernames) {
+        if (alias.length() < 2 || alias.charAt(0) != 'u') {
+            return null;
+        }
+        try {
+            int index = Integer.parseInt(alias.substring(1));
+            return index >= 0 && index < usernames.size() ? usernames.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    ProblemMetadata parseProblemMetadata(InputStream body, String titleSlug) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            Map<String, String> question = null;
+            List<GraphQLError> errors = new ArrayList<>();
+            expect(parser, JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("data".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String dataField = parser.getCurrentName();
+                        parser.nextToken();
+                        if ("question".equals(dataField) && parser.currentToken() == JsonToken.START_OBJECT) {
+                            question = readScalarFields(parser);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if ("errors".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    readErrors(parser, errors);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            if (question == null) {
+                if (!errors.isEmpty()) {
+                    throw apiError(errors.get(0).message);
+                }
+                throw new IOException("Problem not found: " + titleSlug);
+            }
+            return new ProblemMetadata(
+                titleSlug,
+                question.getOrDefault("title", titleSlug),
+                question.getOrDefault("difficulty", "Unknown"),
+                question.get("questionFrontendId")
+            );
+        }
+    }
+
+    /**
+     * Reads every submission list under {@code data}, keyed by {@code keyForAlias} of its
+     * field name; fields mapping to a null key are skipped. {@code fingerprints} may be null.
+     */
+    private SubmissionListsResponse parseSubmissionLists(InputStream body, Function<String, String> keyForAlias,
+                                                         SubmissionFingerprints fingerprints) throws IOException {
+        SubmissionListsResponse response = new SubmissionListsResponse();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expect(parser, JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("data".equals(field) && value == JsonToken.START_OBJECT) {
+                    response.hasData = true;
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String key = keyForAlias.apply(parser.getCurrentName());
+                        if (parser.nextToken() == JsonToken.START_ARRAY && key != null) {
+                            response.lists.put(key, readSubmissionList(parser, key, fingerprints));
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else if ("errors".equals(field) && value == JsonToken.START_ARRAY) {
+                    readErrors(parser, response.errors);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return response;
+    }
+
+    private List<LeetCodeService.Submission> readSubmissionList(JsonParser parser, String username,
+                                                                SubmissionFingerprints fingerprints) throws IOException {
+        List<LeetCodeService.Submission> submissions = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String id = null;
+            String title = null;
+            String titleSlug = null;
+            long timestamp = 0;
+            String language = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> id = parser.getValueAsString();
+                    case "title" -> title = parser.getValueAsString();
+                    case "titleSlug" -> titleSlug = parser.getValueAsString();
+                    case "timestamp" -> timestamp = parser.getValueAsLong();
+                    case "lang" -> language = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (submissions.isEmpty() && fingerprints != null && fingerprints.isUnchanged(username, id)) {
+                // Newest submission already seen: the rest of the list is too, skip it unmapped
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    parser.skipChildren();
+                }
+                return List.of();
+            }
+            submissions.add(new LeetCodeService.Submission(id, title, titleSlug, timestamp, language));
+        }
+        return submissions;
+    }
+
+    private void readErrors(JsonParser parser, List<GraphQLError> errors) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            GraphQLError error = new GraphQLError();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("message".equals(field)) {
+                    error.message = parser.getValueAsString("Unknown error");
+                } else if ("path".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                    if (parser.nextToken() != JsonToken.END_ARRAY) {
+                        error.path = parser.getValueAsString();
+                        parser.skipChildren();
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            errors.add(error);
+        }
+    }
+
+    private Map<String, String> readScalarFields(JsonParser parser) throws IOException {
+        Map<String, String> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if (parser.currentToken().isScalarValue() && parser.currentToken() != JsonToken.VALUE_NULL) {
+                fields.put(field, parser.getValueAsString());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return fields;
+    }
+
+    private static void expect(JsonParser parser, JsonToken expected) throws IOException {
+        JsonToken actual = parser.nextToken();
+        if (actual != expected) {
+            throw new IOException("Unexpected LeetCode response: expected " + expected + " but got " + actual);
+        }
+    }
+
+    private static class SubmissionListsResponse {
+        private final Map<String, List<LeetCodeService.Submission>> lists = new HashMap<>();
+        private final List<GraphQLError> errors = new ArrayList<>();
+        private boolean hasData;
+    }
+
+    private static class GraphQLError {
+        private String message = "Unknown error";
+        private String path = "unknown field";
+    }
+}
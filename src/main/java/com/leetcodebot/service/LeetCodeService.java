@@ -1,30 +1,46 @@
 package com.leetcodebot.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leetcodebot.config.HttpClientConfig;
+import com.leetcodebot.metrics.Metrics;
+import com.leetcodebot.model.ProblemMetadata;
 import okhttp3.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.IOException;
-import java.io.FileOutputStream;
+import java.io.InputStream;
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class LeetCodeService {
+    private static final Logger logger = LoggerFactory.getLogger(LeetCodeService.class);
+
     private final OkHttpClient client;
     private final ObjectMapper objectMapper;
+    private final LeetCodeResponseParser responseParser;
+    private final RateLimitingInterceptor rateLimiter;
+    private final SubmissionFingerprints fingerprints = new SubmissionFingerprints();
     private final String apiUrl;
     private final String recentSubmissionsQuery;
-    private String csrfToken;
-    private String leetcodeSession;
-    private final Properties config;
-    private final String configPath;
+    private final int batchSize;
+    private final SessionManager sessionManager;
 
     private static final String USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/122.0.0.0 Safari/537.36";
 
+    private static final int RECENT_SUBMISSIONS_LIMIT = 5;
+    private static final int DEFAULT_BATCH_SIZE = 20;
+    private static final String DEFAULT_REQUESTS_PER_SECOND = "5";
+    private static final String DEFAULT_BURST = "10";
+    private static final String DEFAULT_MAX_RETRIES = "3";
+    private static final String DEFAULT_BASE_BACKOFF_MILLIS = "500";
+    private static final String DEFAULT_MAX_BACKOFF_MILLIS = "30000";
+    private static final String DEFAULT_CIRCUIT_FAILURE_THRESHOLD = "5";
+    private static final String DEFAULT_CIRCUIT_OPEN_SECONDS = "120";
+
     private static final String PROBLEM_DETAIL_QUERY = """
         query problemData($titleSlug: String!) {
             question(titleSlug: $titleSlug) {
+                questionFrontendId
                 difficulty
                 title
                 titleSlug
@@ -33,194 +49,175 @@ public class LeetCodeService {
     """;
 
     public LeetCodeService(Properties config) {
-        this.client = new OkHttpClient.Builder()
-                .followRedirects(true)
-                .cookieJar(new CookieJar() {
-                    private List<Cookie> cookies = new ArrayList<>();
-                    
-                    @Override
-                    public void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
-                        this.cookies = cookies;
-                    }
-                    
-                    @Override
-                    public List<Cookie> loadForRequest(HttpUrl url) {
-                        return cookies;
-                    }
-                })
-                .build();
+        this.rateLimiter = new RateLimitingInterceptor(
+                new TokenBucket(
+                        Integer.parseInt(config.getProperty("leetcode.api.burst", DEFAULT_BURST)),
+                        Double.parseDouble(config.getProperty("leetcode.api.requests_per_second", DEFAULT_REQUESTS_PER_SECOND))),
+                new CircuitBreaker(
+                        Integer.parseInt(config.getProperty("leetcode.api.circuit_failure_threshold", DEFAULT_CIRCUIT_FAILURE_THRESHOLD)),
+                        Long.parseLong(config.getProperty("leetcode.api.circuit_open_seconds", DEFAULT_CIRCUIT_OPEN_SECONDS)) * 1000),
+                Integer.parseInt(config.getProperty("leetcode.api.max_retries", DEFAULT_MAX_RETRIES)),
+                Long.parseLong(config.getProperty("leetcode.api.base_backoff_ms", DEFAULT_BASE_BACKOFF_MILLIS)),
+                Long.parseLong(config.getProperty("leetcode.api.max_backoff_ms", DEFAULT_MAX_BACKOFF_MILLIS)));
+        OkHttpClient loginClient = HttpClientConfig.createLeetCodeClient(config, rateLimiter);
+        // API calls send the current session's tokens themselves; with the cookie jar attached, any
+        // leetcode.com cookie it picked up would replace that Cookie header on the wire
+        this.client = loginClient.newBuilder().cookieJar(CookieJar.NO_COOKIES).build();
         this.objectMapper = new ObjectMapper();
+        this.responseParser = new LeetCodeResponseParser(objectMapper.getFactory());
         this.apiUrl = config.getProperty("leetcode.api.url");
         this.recentSubmissionsQuery = config.getProperty("leetcode.api.recent_submissions_query");
-        this.config = config;
-        
-        // Get the config file path
-        String resourcePath = getClass().getClassLoader().getResource("config.properties").getPath();
-        this.configPath = resourcePath;
-        
-        // Try to use existing tokens or get new ones
-        this.csrfToken = config.getProperty("leetcode.csrf_token");
-        this.leetcodeSession = config.getProperty("leetcode.session");
-        
-        if (csrfToken == null || leetcodeSession == null || 
-            csrfToken.equals("your_csrf_token_here") || 
-            leetcodeSession.equals("your_leetcode_session_here")) {
-            String username = config.getProperty("leetcode.username");
-            String password = config.getProperty("leetcode.password");
-            
-            if (username == null || password == null) {
-                throw new IllegalStateException("LeetCode credentials not configured. Please set leetcode.username and leetcode.password in config.properties");
-            }
-            
-            try {
-                login(username, password);
-            } catch (IOException e) {
-                throw new IllegalStateException("Failed to login to LeetCode: " + e.getMessage());
-            }
+        this.batchSize = Integer.parseInt(config.getProperty("leetcode.api.batch_size",
+            String.valueOf(DEFAULT_BATCH_SIZE)));
+        if (batchSize < 1) {
+            throw new IllegalStateException("leetcode.api.batch_size must be at least 1");
         }
+        this.sessionManager = new SessionManager(loginClient, config, USER_AGENT);
     }
 
-    private void login(String username, String password) throws IOException {
-        // First, get the CSRF token from the login page
-        Request getRequest = new Request.Builder()
-                .url("https://leetcode.com/accounts/login/")
-                .header("User-Agent", USER_AGENT)
-                .build();
+    /**
+     * Starts a background re-login without waiting for it. Requests rejected for
+     * authentication trigger the same refresh on their own.
+     */
+    public void refreshTokensIfNeeded() {
+        sessionManager.refresh(sessionManager.current());
+    }
 
-        Response getResponse = client.newCall(getRequest).execute();
-        String html = getResponse.body().string();
-        
-        // Extract CSRF token from the page
-        Pattern pattern = Pattern.compile("name=\"csrfmiddlewaretoken\" value=\"([^\"]+)\"");
-        Matcher matcher = pattern.matcher(html);
-        if (!matcher.find()) {
-            throw new IOException("Could not find CSRF token in login page");
-        }
-        String csrfmiddlewaretoken = matcher.group(1);
+    public RateLimitingInterceptor getRateLimiter() {
+        return rateLimiter;
+    }
 
-        // Perform login
-        RequestBody formBody = new FormBody.Builder()
-                .add("login", username)
-                .add("password", password)
-                .add("csrfmiddlewaretoken", csrfmiddlewaretoken)
-                .build();
+    /**
+     * True while LeetCode is considered degraded and calls are being refused without
+     * being sent; pollers should skip their cycle instead of failing every request.
+     */
+    public boolean isCircuitOpen() {
+        return rateLimiter.isCircuitOpen();
+    }
 
-        Request loginRequest = new Request.Builder()
-                .url("https://leetcode.com/accounts/login/")
-                .header("User-Agent", USER_AGENT)
-                .header("Referer", "https://leetcode.com/accounts/login/")
-                .header("Origin", "https://leetcode.com")
-                .post(formBody)
-                .build();
+    public List<Submission> getRecentSubmissions(String username) throws IOException {
+        ObjectNode variables = objectMapper.createObjectNode();
+        variables.put("username", username);
+        variables.put("limit", RECENT_SUBMISSIONS_LIMIT);
 
-        Response loginResponse = client.newCall(loginRequest).execute();
-        
-        if (!loginResponse.isSuccessful()) {
-            throw new IOException("Login failed: " + loginResponse.code());
-        }
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("query", recentSubmissionsQuery);
+        requestBody.set("variables", variables);
+        requestBody.put("operationName", "recentAcSubmissionList");
 
-        // Extract cookies
-        List<Cookie> cookies = client.cookieJar().loadForRequest(HttpUrl.parse("https://leetcode.com"));
-        for (Cookie cookie : cookies) {
-            if (cookie.name().equals("csrftoken")) {
-                this.csrfToken = cookie.value();
-            } else if (cookie.name().equals("LEETCODE_SESSION")) {
-                this.leetcodeSession = cookie.value();
+        logger.debug("Fetching recent submissions of {}", username);
+        return executeGraphQL("recent_submissions", requestBody.toString(), responseParser::parseRecentSubmissions);
+    }
+
+    /**
+     * Fetches the recent accepted submissions of many users, packing up to
+     * {@link #getBatchSize()} users into each GraphQL request as aliased
+     * {@code recentAcSubmissionList} fields. Users whose part of the response
+     * failed are left out of the returned map, and users whose newest submission is
+     * the same as on the previous call get an empty list (see {@link SubmissionFingerprints}).
+     */
+    public Map<String, List<Submission>> getRecentSubmissions(Collection<String> usernames) throws IOException {
+        Map<String, List<Submission>> result = new LinkedHashMap<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String username : usernames) {
+            batch.add(username);
+            if (batch.size() == batchSize) {
+                result.putAll(getRecentSubmissionsBatch(batch));
+                batch.clear();
             }
         }
-
-        if (this.csrfToken == null || this.leetcodeSession == null) {
-            throw new IOException("Failed to obtain authentication tokens after login");
+        if (!batch.isEmpty()) {
+            result.putAll(getRecentSubmissionsBatch(batch));
         }
+        return result;
+    }
 
-        // Update config file with new tokens
-        config.setProperty("leetcode.csrf_token", this.csrfToken);
-        config.setProperty("leetcode.session", this.leetcodeSession);
-        
-        try (FileOutputStream out = new FileOutputStream(configPath)) {
-            config.store(out, "Updated LeetCode authentication tokens");
-        }
+    public int getBatchSize() {
+        return batchSize;
     }
 
-    public void refreshTokensIfNeeded() {
-        String username = config.getProperty("leetcode.username");
-        String password = config.getProperty("leetcode.password");
-        
-        if (username != null && password != null) {
-            try {
-                login(username, password);
-            } catch (IOException e) {
-                System.err.println("Failed to refresh tokens: " + e.getMessage());
-            }
-        }
+    public SubmissionFingerprints getFingerprints() {
+        return fingerprints;
     }
 
-    public List<Submission> getRecentSubmissions(String username) throws IOException {
+    private Map<String, List<Submission>> getRecentSubmissionsBatch(List<String> usernames) throws IOException {
         ObjectNode variables = objectMapper.createObjectNode();
-        variables.put("username", username);
-        variables.put("limit", 5);
+        variables.put("limit", RECENT_SUBMISSIONS_LIMIT);
+
+        StringBuilder parameters = new StringBuilder("$limit: Int");
+        StringBuilder fields = new StringBuilder();
+        for (int i = 0; i < usernames.size(); i++) {
+            String alias = "u" + i;
+            variables.put(alias, usernames.get(i));
+            parameters.append(", $").append(alias).append(": String!");
+            fields.append(alias).append(": recentAcSubmissionList(username: $").append(alias)
+                  .append(", limit: $limit) { id title titleSlug timestamp lang } ");
+        }
 
         ObjectNode requestBody = objectMapper.createObjectNode();
-        requestBody.put("query", recentSubmissionsQuery);
+        requestBody.put("query", "query recentAcSubmissionListBatch(" + parameters + ") { " + fields + "}");
         requestBody.set("variables", variables);
-        requestBody.put("operationName", "recentAcSubmissionList");
+        requestBody.put("operationName", "recentAcSubmissionListBatch");
 
-        String jsonBody = requestBody.toString();
-        System.out.println("Request body: " + jsonBody);
+        return executeGraphQL("recent_submissions_batch", requestBody.toString(),
+            body -> responseParser.parseRecentSubmissionsBatch(body, usernames, fingerprints));
+    }
 
-        Request request = new Request.Builder()
+    /**
+     * Sends a GraphQL request with the current session and hands the response body to
+     * {@code parser}. A request rejected for authentication waits for the session to be
+     * refreshed and is retried once with the new tokens. Latency and outcome are
+     * recorded per {@code operation}.
+     */
+    private <T> T executeGraphQL(String operation, String jsonBody, ResponseBodyParser<T> parser) throws IOException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            SessionManager.Session session = sessionManager.current();
+            for (int attempt = 0; ; attempt++) {
+                try (Response response = client.newCall(newGraphQLRequest(jsonBody, session)).execute()) {
+                    if (response.code() == 401 || response.code() == 403) {
+                        throw new SessionExpiredException("LeetCode rejected the session with status: " + response.code());
+                    }
+                    if (!response.isSuccessful()) {
+                        logger.warn("LeetCode {} request failed with status {}", operation, response.code());
+                        throw new IOException("LeetCode API request failed with status: " + response.code());
+                    }
+                    T result = parser.parse(response.body().byteStream());
+                    outcome = "success";
+                    return result;
+                } catch (SessionExpiredException e) {
+                    if (attempt > 0) {
+                        outcome = "auth_failure";
+                        throw e;
+                    }
+                    logger.warn("{}, waiting for a new session", e.getMessage());
+                    session = sessionManager.awaitRefresh(session);
+                }
+            }
+        } finally {
+            Metrics.histogram("leetcode_request_duration_seconds", "Latency of LeetCode GraphQL calls",
+                "operation", operation).observeNanosSince(start);
+            Metrics.counter("leetcode_requests_total", "LeetCode GraphQL calls by outcome",
+                "operation", operation, "outcome", outcome).increment();
+        }
+    }
+
+    private Request newGraphQLRequest(String jsonBody, SessionManager.Session session) {
+        return new Request.Builder()
                 .url(apiUrl)
                 .post(RequestBody.create(jsonBody, MediaType.parse("application/json")))
                 .header("User-Agent", USER_AGENT)
                 .header("Content-Type", "application/json")
                 .header("Referer", "https://leetcode.com/")
                 .header("Origin", "https://leetcode.com")
-                .header("Cookie", String.format("csrftoken=%s; LEETCODE_SESSION=%s", csrfToken, leetcodeSession))
-                .header("X-Csrftoken", csrfToken)
+                .header("Cookie", String.format("csrftoken=%s; LEETCODE_SESSION=%s",
+                        session.getCsrfToken(), session.getLeetcodeSession()))
+                .header("X-Csrftoken", session.getCsrfToken())
                 .header("Accept", "*/*")
                 .header("Accept-Language", "en-US,en;q=0.9")
                 .header("x-requested-with", "XMLHttpRequest")
                 .build();
-
-        Response response = null;
-        try {
-            System.out.println("Making request to LeetCode API...");
-            response = client.newCall(request).execute();
-            String responseBody = response.body().string();
-            
-            if (!response.isSuccessful()) {
-                System.err.println("LeetCode API request failed with status: " + response.code());
-                System.err.println("Response body: " + responseBody);
-                throw new IOException("LeetCode API request failed with status: " + response.code());
-            }
-
-            JsonNode responseJson = objectMapper.readTree(responseBody);
-            JsonNode errors = responseJson.path("errors");
-            
-            if (!errors.isMissingNode()) {
-                String errorMessage = errors.path(0).path("message").asText("Unknown error");
-                throw new IOException("LeetCode API error: " + errorMessage);
-            }
-
-            JsonNode submissions = responseJson
-                    .path("data")
-                    .path("recentAcSubmissionList");
-
-            List<Submission> result = new ArrayList<>();
-            for (JsonNode submission : submissions) {
-                result.add(new Submission(
-                    submission.path("id").asText(),
-                    submission.path("title").asText(),
-                    submission.path("titleSlug").asText(),
-                    submission.path("timestamp").asLong()
-                ));
-            }
-            return result;
-        } finally {
-            if (response != null) {
-                response.close();
-            }
-        }
     }
 
     public Map<String, List<Map<String, String>>> getDailyStatistics(String username, Set<String> submissionIds) throws IOException {
@@ -246,6 +243,10 @@ public class LeetCodeService {
     }
 
     public String getProblemDifficulty(String titleSlug) throws IOException {
+        return getProblemMetadata(titleSlug).getDifficulty();
+    }
+
+    public ProblemMetadata getProblemMetadata(String titleSlug) throws IOException {
         ObjectNode variables = objectMapper.createObjectNode();
         variables.put("titleSlug", titleSlug);
 
@@ -253,28 +254,8 @@ public class LeetCodeService {
         requestBody.put("query", PROBLEM_DETAIL_QUERY);
         requestBody.set("variables", variables);
 
-        Request request = new Request.Builder()
-                .url(apiUrl)
-                .post(RequestBody.create(requestBody.toString(), MediaType.parse("application/json")))
-                .header("User-Agent", USER_AGENT)
-                .header("Content-Type", "application/json")
-                .header("Referer", "https://leetcode.com/")
-                .header("Origin", "https://leetcode.com")
-                .header("Cookie", String.format("csrftoken=%s; LEETCODE_SESSION=%s", csrfToken, leetcodeSession))
-                .header("X-Csrftoken", csrfToken)
-                .build();
-
-        try (Response response = client.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to get problem difficulty: " + response.code());
-            }
-
-            JsonNode jsonResponse = objectMapper.readTree(response.body().string());
-            return jsonResponse.path("data")
-                             .path("question")
-                             .path("difficulty")
-                             .asText("Unknown");
-        }
+        return executeGraphQL("problem_metadata", requestBody.toString(),
+            body -> responseParser.parseProblemMetadata(body, titleSlug));
     }
 
     private Submission getSubmissionById(String id) {
@@ -287,27 +268,43 @@ public class LeetCodeService {
                             .findFirst()
                             .orElse(null);
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.error("Failed to look up submission {}", id, e);
             return null;
         }
     }
 
+    @FunctionalInterface
+    private interface ResponseBodyParser<T> {
+        T parse(InputStream body) throws IOException;
+    }
+
     public static class Submission {
         private final String id;
         private final String title;
         private final String titleSlug;
         private final long submitTime;
+        private final String language;
 
         public Submission(String id, String title, String titleSlug, long submitTime) {
+            this(id, title, titleSlug, submitTime, null);
+        }
+
+        public Submission(String id, String title, String titleSlug, long submitTime, String language) {
             this.id = id;
             this.title = title;
             this.titleSlug = titleSlug;
             this.submitTime = submitTime;
+            this.language = language;
         }
 
         public String getId() { return id; }
         public String getTitle() { return title; }
         public String getTitleSlug() { return titleSlug; }
         public long getSubmitTime() { return submitTime; }
+
+        /**
+         * LeetCode's language key (e.g. {@code python3}), or null if the query did not ask for it.
+         */
+        public String getLanguage() { return language; }
     }
 } 
\ No newline at end of file
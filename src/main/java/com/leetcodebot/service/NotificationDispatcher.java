@@ -0,0 +1,167 @@
+package com.leetcodebot.service;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers announcements per channel for a short window and sends each window's worth
+ * as as few messages as Discord's length limit allows, so a burst of solves costs a
+ * channel one or two messages instead of one per solve.
+ */
+public class NotificationDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final String SEPARATOR = "\n";
+
+    private final ChannelRegistry channelRegistry;
+    private final long windowMillis;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, ChannelBuffer> buffers = new ConcurrentHashMap<>();
+    private final AtomicInteger queuedMessages = new AtomicInteger();
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong failedMessages = new AtomicLong();
+    private final AtomicLong totalSendLatencyMillis = new AtomicLong();
+    private volatile long maxSendLatencyMillis;
+
+    public NotificationDispatcher(ChannelRegistry channelRegistry, long windowMillis) {
+        this.channelRegistry = channelRegistry;
+        this.windowMillis = windowMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a message for the channel. The first message of a window creates the
+     * channel's buffer and schedules the flush; messages arriving before it are coalesced
+     * into the same send. The flush removes the buffer, so only channels with pending
+     * messages have one.
+     */
+    public void enqueue(String channelId, String message) {
+        queuedMessages.incrementAndGet();
+        buffers.compute(channelId, (id, buffer) -> {
+            if (buffer == null) {
+                buffer = new ChannelBuffer(System.currentTimeMillis());
+                scheduler.schedule(() -> flush(channelId), windowMillis, TimeUnit.MILLISECONDS);
+            }
+            buffer.messages.add(message);
+            return buffer;
+        });
+    }
+
+    private void flush(String channelId) {
+        // Atomic with enqueue's compute: a message either made it into this buffer or starts a new window
+        ChannelBuffer buffer = buffers.remove(channelId);
+        if (buffer == null || buffer.messages.isEmpty()) {
+            return;
+        }
+        List<String> messages = buffer.messages;
+        long enqueuedAt = buffer.firstEnqueuedAt;
+        queuedMessages.addAndGet(-messages.size());
+
+        MessageChannel channel = channelRegistry.getChannel(channelId);
+        if (channel == null) {
+            logger.warn("Dropping {} announcements for missing channel {}", messages.size(), channelId);
+            failedMessages.addAndGet(messages.size());
+            return;
+        }
+
+        List<String> chunks = coalesce(messages);
+        logger.info("Sending {} announcements to channel {} as {} messages", messages.size(), channelId, chunks.size());
+        for (String chunk : chunks) {
+            channel.sendMessage(chunk).queue(
+                success -> recordSent(enqueuedAt),
+                error -> {
+                    failedMessages.incrementAndGet();
+                    logger.error("Failed to send announcements to channel {}", channelId, error);
+                }
+            );
+        }
+    }
+
+    /**
+     * Joins messages into as few chunks as possible without exceeding Discord's message
+     * length limit. A single message longer than the limit is truncated.
+     */
+    static List<String> coalesce(List<String> messages) {
+        List<String> chunks = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String message : messages) {
+            if (message.length() > Message.MAX_CONTENT_LENGTH) {
+                message = message.substring(0, Message.MAX_CONTENT_LENGTH);
+            }
+            int needed = current.length() == 0 ? message.length() : current.length() + SEPARATOR.length() + message.length();
+            if (needed > Message.MAX_CONTENT_LENGTH) {
+                chunks.add(current.toString());
+                current.setLength(0);
+            }
+            if (current.length() > 0) {
+                current.append(SEPARATOR);
+            }
+            current.append(message);
+        }
+        if (current.length() > 0) {
+            chunks.add(current.toString());
+        }
+        return chunks;
+    }
+
+    private void recordSent(long enqueuedAt) {
+        long latency = System.currentTimeMillis() - enqueuedAt;
+        sentMessages.incrementAndGet();
+        totalSendLatencyMillis.addAndGet(latency);
+        if (latency > maxSendLatencyMillis) {
+            maxSendLatencyMillis = latency;
+        }
+    }
+
+    /**
+     * Number of announcements waiting for their channel's window to close.
+     */
+    public int getQueueDepth() {
+        return queuedMessages.get();
+    }
+
+    public long getSentMessages() {
+        return sentMessages.get();
+    }
+
+    public long getFailedMessages() {
+        return failedMessages.get();
+    }
+
+    /**
+     * Average time from the first announcement of a window being queued to Discord
+     * acknowledging the message that carried it.
+     */
+    public long getAverageSendLatencyMillis() {
+        long sent = sentMessages.get();
+        return sent == 0 ? 0 : totalSendLatencyMillis.get() / sent;
+    }
+
+    public long getMaxSendLatencyMillis() {
+        return maxSendLatencyMillis;
+    }
+
+    private static class ChannelBuffer {
+        private final List<String> messages = new ArrayList<>();
+        private final long firstEnqueuedAt;
+
+        private ChannelBuffer(long firstEnqueuedAt) {
+            this.firstEnqueuedAt = firstEnqueuedAt;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs one poll cycle by fanning the per-item work out over a fixed-size worker pool
+ * and waiting for all of it, so a cycle takes roughly as long as its slowest call
+ * instead of the sum of all calls.
+ */
+public class PollingEngine {
+    private static final Logger logger = LoggerFactory.getLogger(PollingEngine.class);
+
+    private final ExecutorService workers;
+    private final int concurrency;
+    private final long periodMillis;
+    private final AtomicLong completedCycles = new AtomicLong();
+    private final AtomicLong overrunCycles = new AtomicLong();
+    private final AtomicLong failedTasks = new AtomicLong();
+    private volatile long lastCycleMillis;
+    private volatile long maxCycleMillis;
+
+    public PollingEngine(int concurrency, long periodMillis) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Polling concurrency must be at least 1, got " + concurrency);
+        }
+        this.concurrency = concurrency;
+        this.periodMillis = periodMillis;
+        this.workers = Executors.newFixedThreadPool(concurrency, new PollerThreadFactory());
+    }
+
+    /**
+     * Runs {@code task} for every item, at most {@code concurrency} at a time, and blocks
+     * until all of them have finished. A failing task is logged and does not affect the others.
+     */
+    public <T> void runCycle(Collection<T> items, Consumer<T> task) {
+        long start = System.nanoTime();
+        int failed = 0;
+        try {
+            List<Future<?>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(workers.submit(() -> task.accept(item)));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failed++;
+                    logger.error("Polling task failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Poll cycle interrupted");
+        } finally {
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            Metrics.histogram("poll_cycle_duration_seconds", "Duration of poll cycles").observeNanosSince(start);
+            lastCycleMillis = elapsedMillis;
+            maxCycleMillis = Math.max(maxCycleMillis, elapsedMillis);
+            completedCycles.incrementAndGet();
+            failedTasks.addAndGet(failed);
+
+            if (elapsedMillis > periodMillis) {
+                long overruns = overrunCycles.incrementAndGet();
+                logger.warn("Poll cycle over {} items took {} ms, exceeding the {} ms period ({} overruns so far)",
+                    items.size(), elapsedMillis, periodMillis, overruns);
+            } else {
+                logger.info("Poll cycle over {} items finished in {} ms with {} failures (concurrency {})",
+                    items.size(), elapsedMillis, failed, concurrency);
+            }
+        }
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public long getCompletedCycles() {
+        return completedCycles.get();
+    }
+
+    public long getOverrunCycles() {
+        return overrunCycles.get();
+    }
+
+    public long getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    public long getLastCycleMillis() {
+        return lastCycleMillis;
+    }
+
+    public long getMaxCycleMillis() {
+        return maxCycleMillis;
+    }
+
+    private static class PollerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "poller-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
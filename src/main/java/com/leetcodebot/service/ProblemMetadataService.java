@@ -0,0 +1,91 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.model.ProblemMetadata;
+import com.leetcodebot.repository.ProblemMetadataRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Problem metadata (title, difficulty, frontend id) never changes once a problem is
+ * published, so it is fetched from LeetCode at most once per problem: lookups go
+ * through a bounded in-memory LRU, then the {@code problem_metadata} table, and only
+ * then the GraphQL API, whose answer is stored in both.
+ */
+public class ProblemMetadataService {
+    private static final Logger logger = LoggerFactory.getLogger(ProblemMetadataService.class);
+
+    private final LeetCodeService leetCodeService;
+    private final ProblemMetadataRepository metadataRepository;
+    private final Map<String, ProblemMetadata> cache;
+
+    public ProblemMetadataService(LeetCodeService leetCodeService, int capacity) {
+        this.leetCodeService = leetCodeService;
+        this.metadataRepository = new ProblemMetadataRepository();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ProblemMetadata> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public ProblemMetadata getMetadata(String titleSlug) throws IOException {
+        ProblemMetadata metadata = getCached(titleSlug);
+        if (metadata != null) {
+            return metadata;
+        }
+
+        Optional<ProblemMetadata> stored = metadataRepository.findBySlug(titleSlug);
+        if (stored.isPresent()) {
+            putCached(stored.get());
+            return stored.get();
+        }
+
+        logger.info("Fetching metadata for unknown problem {}", titleSlug);
+        metadata = leetCodeService.getProblemMetadata(titleSlug);
+        metadataRepository.save(metadata);
+        putCached(metadata);
+        return metadata;
+    }
+
+    public String getDifficulty(String titleSlug) throws IOException {
+        return getMetadata(titleSlug).getDifficulty();
+    }
+
+    /**
+     * Loads every already-known problem among {@code titleSlugs} into the cache with a
+     * single query, so that a following run of lookups only hits the network for
+     * problems nobody has solved before.
+     */
+    public void preload(Collection<String> titleSlugs) {
+        List<String> missing = new ArrayList<>();
+        synchronized (cache) {
+            for (String titleSlug : titleSlugs) {
+                if (!cache.containsKey(titleSlug)) {
+                    missing.add(titleSlug);
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        for (ProblemMetadata metadata : metadataRepository.findBySlugs(missing)) {
+            putCached(metadata);
+        }
+    }
+
+    private ProblemMetadata getCached(String titleSlug) {
+        synchronized (cache) {
+            return cache.get(titleSlug);
+        }
+    }
+
+    private void putCached(ProblemMetadata metadata) {
+        synchronized (cache) {
+            cache.put(metadata.getTitleSlug(), metadata);
+        }
+    }
+}
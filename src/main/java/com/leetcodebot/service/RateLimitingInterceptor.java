@@ -0,0 +1,183 @@
+package com.leetcodebot.service;
+
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Guards every call to LeetCode: takes a token from the shared {@link TokenBucket}
+ * before sending, retries 429 and 503 answers honoring {@code Retry-After} (or with
+ * jittered exponential backoff when there is none), and feeds the outcome into a
+ * {@link CircuitBreaker} that refuses calls outright while LeetCode is degraded.
+ */
+public class RateLimitingInterceptor implements Interceptor {
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitingInterceptor.class);
+
+    private final TokenBucket tokenBucket;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxRetries;
+    private final long baseBackoffMillis;
+    private final long maxBackoffMillis;
+    private final AtomicLong delayedCalls = new AtomicLong();
+    private final AtomicLong throttledCalls = new AtomicLong();
+    private final AtomicLong retriedCalls = new AtomicLong();
+    private final AtomicLong failedCalls = new AtomicLong();
+
+    public RateLimitingInterceptor(TokenBucket tokenBucket, CircuitBreaker circuitBreaker, int maxRetries,
+                                   long baseBackoffMillis, long maxBackoffMillis) {
+        this.tokenBucket = tokenBucket;
+        this.circuitBreaker = circuitBreaker;
+        this.maxRetries = maxRetries;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        if (!circuitBreaker.tryAcquire()) {
+            failedCalls.incrementAndGet();
+            long remainingMillis = circuitBreaker.getRemainingOpenMillis();
+            throw new IOException(remainingMillis > 0
+                ? "LeetCode circuit breaker is open for another " + remainingMillis + " ms"
+                : "LeetCode circuit breaker is half-open and waiting for its trial call");
+        }
+
+        for (int attempt = 0; ; attempt++) {
+            acquireToken();
+
+            Response response;
+            try {
+                response = chain.proceed(chain.request());
+            } catch (IOException e) {
+                failedCalls.incrementAndGet();
+                circuitBreaker.recordFailure();
+                throw e;
+            }
+
+            int code = response.code();
+            if (code != 429 && code != 503) {
+                if (code >= 500) {
+                    circuitBreaker.recordFailure();
+                } else {
+                    circuitBreaker.recordSuccess();
+                }
+                return response;
+            }
+
+            throttledCalls.incrementAndGet();
+            long retryAfterMillis = parseRetryAfterMillis(response.header("Retry-After"));
+            if (attempt >= maxRetries || retryAfterMillis > maxBackoffMillis) {
+                failedCalls.incrementAndGet();
+                if (retryAfterMillis > maxBackoffMillis) {
+                    // Not worth blocking a poller for; stop calling until LeetCode wants us back
+                    circuitBreaker.openFor(retryAfterMillis);
+                } else {
+                    circuitBreaker.recordFailure();
+                }
+                logger.warn("LeetCode answered {} for {} after {} retries, giving up",
+                    code, chain.request().url(), attempt);
+                return response;
+            }
+
+            response.close();
+            long delayMillis = retryAfterMillis >= 0 ? retryAfterMillis : backoffMillis(attempt);
+            retriedCalls.incrementAndGet();
+            logger.info("LeetCode answered {}, retrying in {} ms (attempt {} of {})",
+                code, delayMillis, attempt + 1, maxRetries);
+            sleep(delayMillis);
+        }
+    }
+
+    /**
+     * Full-jitter exponential backoff: a random delay between zero and
+     * {@code base * 2^attempt}, capped at {@code maxBackoffMillis}.
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, baseBackoffMillis << Math.min(attempt, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Returns the delay requested by a {@code Retry-After} header in milliseconds, which
+     * may be given in seconds or as an HTTP date, or -1 if there is no usable header.
+     */
+    static long parseRetryAfterMillis(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return -1;
+        }
+        try {
+            return Math.max(0, Long.parseLong(retryAfter.trim()) * 1000);
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt).toMillis());
+            } catch (DateTimeParseException ignored) {
+                return -1;
+            }
+        }
+    }
+
+    private void acquireToken() throws IOException {
+        try {
+            if (tokenBucket.acquire() > 0) {
+                delayedCalls.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a LeetCode rate limit token");
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while backing off from LeetCode");
+        }
+    }
+
+    public boolean isCircuitOpen() {
+        return circuitBreaker.isOpen();
+    }
+
+    public long getCircuitOpenings() {
+        return circuitBreaker.getTimesOpened();
+    }
+
+    /**
+     * Calls that had to wait for a rate limit token before being sent.
+     */
+    public long getDelayedCalls() {
+        return delayedCalls.get();
+    }
+
+    /**
+     * 429 and 503 answers received from LeetCode.
+     */
+    public long getThrottledCalls() {
+        return throttledCalls.get();
+    }
+
+    public long getRetriedCalls() {
+        return retriedCalls.get();
+    }
+
+    /**
+     * Calls that failed for good: network errors, exhausted retries and calls refused
+     * by the open circuit breaker.
+     */
+    public long getFailedCalls() {
+        return failedCalls.get();
+    }
+}
@@ -0,0 +1,94 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.repository.SeenSubmissionRepository;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which submission ids have already been handled for each user, so that
+ * detection is idempotent by id rather than dependent on timestamps and wall-clock
+ * check times. Each user keeps a bounded ring of their most recent ids in memory,
+ * backed by the {@code seen_submissions} table and loaded on first use. New ids
+ * are persisted by the poll cycle's write-behind stage.
+ */
+public class SeenSubmissionIndex {
+    private final SeenSubmissionRepository seenRepository;
+    private final int capacity;
+    private final Map<Long, UserRing> rings = new ConcurrentHashMap<>();
+
+    public SeenSubmissionIndex(int capacity) {
+        this.seenRepository = new SeenSubmissionRepository();
+        this.capacity = capacity;
+    }
+
+    public UserRing forUser(Long userId) {
+        return rings.computeIfAbsent(userId, id -> {
+            UserRing ring = new UserRing(capacity);
+            List<String> recentIds = seenRepository.findRecentSubmissionIds(id, capacity);
+            // Stored newest first, the ring evicts oldest first
+            for (int i = recentIds.size() - 1; i >= 0; i--) {
+                ring.add(recentIds.get(i));
+            }
+            return ring;
+        });
+    }
+
+    /**
+     * Releases ids whose handling could not be persisted, so the next check picks them up again.
+     */
+    public void forget(Long userId, Collection<String> submissionIds) {
+        UserRing ring = rings.get(userId);
+        if (ring != null) {
+            ring.removeAll(submissionIds);
+        }
+    }
+
+    /**
+     * Drops the user's ring, so that it is reloaded from the database on next use.
+     */
+    public void evict(Long userId) {
+        rings.remove(userId);
+    }
+
+    public static class UserRing {
+        private final int capacity;
+        private final Deque<String> order;
+        private final Set<String> ids;
+
+        private UserRing(int capacity) {
+            this.capacity = capacity;
+            this.order = new ArrayDeque<>(capacity);
+            this.ids = new HashSet<>(capacity * 2);
+        }
+
+        /**
+         * Marks the id as seen. Returns true only for the caller that saw it first.
+         */
+        public synchronized boolean add(String submissionId) {
+            if (!ids.add(submissionId)) {
+                return false;
+            }
+            order.addLast(submissionId);
+            if (order.size() > capacity) {
+                ids.remove(order.removeFirst());
+            }
+            return true;
+        }
+
+        private synchronized void removeAll(Collection<String> submissionIds) {
+            ids.removeAll(submissionIds);
+            order.removeAll(submissionIds);
+        }
+
+        public synchronized boolean isEmpty() {
+            return ids.isEmpty();
+        }
+    }
+}
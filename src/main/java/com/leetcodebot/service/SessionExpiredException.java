@@ -0,0 +1,15 @@
+package com.leetcodebot.service;
+
+import java.io.IOException;
+
+/**
+ * Thrown when LeetCode rejects a request because the session or CSRF token is no
+ * longer valid, as opposed to the request itself failing.
+ */
+public class SessionExpiredException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    public SessionExpiredException(String message) {
+        super(message);
+    }
+}
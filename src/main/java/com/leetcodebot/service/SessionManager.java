@@ -0,0 +1,274 @@
+package com.leetcodebot.service;
+
+import okhttp3.Cookie;
+import okhttp3.FormBody;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Owns the LeetCode session tokens. When a request is rejected for authentication,
+ * callers ask for a refresh with the session they used; the first caller starts a
+ * login on the single refresh thread and every other caller waits on the same future,
+ * so an expired session costs one login no matter how many pollers notice it.
+ * Refreshed tokens are written to a file under the data directory (not the classpath
+ * config) together with a hash of the configured tokens they replaced, and preferred on
+ * the next start unless the configured tokens have changed since.
+ */
+public class SessionManager {
+    private static final Logger logger = LoggerFactory.getLogger(SessionManager.class);
+    private static final String DEFAULT_SESSION_FILE = System.getProperty("user.home") + "/leetcodebot-data/session.properties";
+    private static final String LOGIN_URL = "https://leetcode.com/accounts/login/";
+    private static final Pattern CSRF_MIDDLEWARE_TOKEN = Pattern.compile("name=\"csrfmiddlewaretoken\" value=\"([^\"]+)\"");
+    private static final long REFRESH_TIMEOUT_SECONDS = 60;
+    private static final String CONFIGURED_HASH = "configured.sha256";
+
+    private final OkHttpClient client;
+    private final Properties config;
+    private final String userAgent;
+    private final Path sessionFile;
+    private final Session configured;
+    private final ExecutorService refresher;
+    private volatile Session current;
+    private CompletableFuture<Session> refreshInFlight;
+
+    public SessionManager(OkHttpClient client, Properties config, String userAgent) {
+        this.client = client;
+        this.config = config;
+        this.userAgent = userAgent;
+        this.sessionFile = Paths.get(System.getenv().getOrDefault("LEETCODE_SESSION_FILE", DEFAULT_SESSION_FILE));
+        this.refresher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "session-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.configured = fromConfig();
+        this.current = loadStoredSession();
+        if (current == null) {
+            current = configured;
+        }
+        if (current == null) {
+            try {
+                current = awaitRefresh(null);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to login to LeetCode: " + e.getMessage());
+            }
+        }
+    }
+
+    public Session current() {
+        return current;
+    }
+
+    /**
+     * Starts a refresh of {@code stale} unless one is already running or the session has
+     * been replaced since the caller read it, and returns the future of the new session.
+     */
+    public synchronized CompletableFuture<Session> refresh(Session stale) {
+        if (current != null && current != stale) {
+            return CompletableFuture.completedFuture(current);
+        }
+        if (refreshInFlight == null || refreshInFlight.isDone()) {
+            logger.info("LeetCode session rejected, starting background login");
+            refreshInFlight = CompletableFuture.supplyAsync(() -> {
+                try {
+                    Session session = login();
+                    current = session;
+                    store(session);
+                    return session;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e.getMessage(), e);
+                }
+            }, refresher);
+        }
+        return refreshInFlight;
+    }
+
+    /**
+     * Refreshes {@code stale} (see {@link #refresh}) and waits for the new session.
+     */
+    public Session awaitRefresh(Session stale) throws IOException {
+        try {
+            return refresh(stale).get(REFRESH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new IOException("LeetCode login failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new IOException("Timed out waiting for LeetCode login");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for LeetCode login");
+        }
+    }
+
+    private Session login() throws IOException {
+        String username = config.getProperty("leetcode.username");
+        String password = config.getProperty("leetcode.password");
+        if (username == null || password == null) {
+            throw new IOException("LeetCode credentials not configured. Please set leetcode.username and leetcode.password in config.properties");
+        }
+
+        // First, get the CSRF token from the login page
+        Request getRequest = new Request.Builder()
+                .url(LOGIN_URL)
+                .header("User-Agent", userAgent)
+                .build();
+        String csrfMiddlewareToken;
+        try (Response getResponse = client.newCall(getRequest).execute()) {
+            Matcher matcher = CSRF_MIDDLEWARE_TOKEN.matcher(getResponse.body().string());
+            if (!matcher.find()) {
+                throw new IOException("Could not find CSRF token in login page");
+            }
+            csrfMiddlewareToken = matcher.group(1);
+        }
+
+        RequestBody formBody = new FormBody.Builder()
+                .add("login", username)
+                .add("password", password)
+                .add("csrfmiddlewaretoken", csrfMiddlewareToken)
+                .build();
+        Request loginRequest = new Request.Builder()
+                .url(LOGIN_URL)
+                .header("User-Agent", userAgent)
+                .header("Referer", LOGIN_URL)
+                .header("Origin", "https://leetcode.com")
+                .post(formBody)
+                .build();
+        try (Response loginResponse = client.newCall(loginRequest).execute()) {
+            if (!loginResponse.isSuccessful()) {
+                throw new IOException("Login failed: " + loginResponse.code());
+            }
+        }
+
+        String csrfToken = null;
+        String leetcodeSession = null;
+        List<Cookie> cookies = client.cookieJar().loadForRequest(HttpUrl.parse("https://leetcode.com"));
+        for (Cookie cookie : cookies) {
+            if (cookie.name().equals("csrftoken")) {
+                csrfToken = cookie.value();
+            } else if (cookie.name().equals("LEETCODE_SESSION")) {
+                leetcodeSession = cookie.value();
+            }
+        }
+        if (csrfToken == null || leetcodeSession == null) {
+            throw new IOException("Failed to obtain authentication tokens after login");
+        }
+        logger.info("Logged in to LeetCode as {}", username);
+        return new Session(csrfToken, leetcodeSession);
+    }
+
+    private Session fromConfig() {
+        String csrfToken = config.getProperty("leetcode.csrf_token");
+        String leetcodeSession = config.getProperty("leetcode.session");
+        if (isPlaceholder(csrfToken) || isPlaceholder(leetcodeSession)) {
+            return null;
+        }
+        return new Session(csrfToken, leetcodeSession);
+    }
+
+    private static boolean isPlaceholder(String value) {
+        return value == null || value.isBlank() || value.startsWith("your_");
+    }
+
+    private Session loadStoredSession() {
+        if (!Files.isRegularFile(sessionFile)) {
+            return null;
+        }
+        Properties stored = new Properties();
+        try (InputStream in = Files.newInputStream(sessionFile)) {
+            stored.load(in);
+        } catch (IOException e) {
+            logger.warn("Could not read stored LeetCode session from {}", sessionFile, e);
+            return null;
+        }
+        String csrfToken = stored.getProperty("leetcode.csrf_token");
+        String leetcodeSession = stored.getProperty("leetcode.session");
+        if (isPlaceholder(csrfToken) || isPlaceholder(leetcodeSession)) {
+            return null;
+        }
+        // Tokens set after the file was written were rotated on purpose and win over it
+        if (configured != null && !hash(configured).equals(stored.getProperty(CONFIGURED_HASH))) {
+            logger.info("Configured LeetCode tokens changed since {} was written, using them instead", sessionFile);
+            return null;
+        }
+        logger.info("Using stored LeetCode session from {}", sessionFile);
+        return new Session(csrfToken, leetcodeSession);
+    }
+
+    private void store(Session session) {
+        Properties stored = new Properties();
+        stored.setProperty("leetcode.csrf_token", session.getCsrfToken());
+        stored.setProperty("leetcode.session", session.getLeetcodeSession());
+        if (configured != null) {
+            stored.setProperty(CONFIGURED_HASH, hash(configured));
+        }
+        try {
+            Path directory = sessionFile.toAbsolutePath().getParent();
+            if (directory != null) {
+                Files.createDirectories(directory);
+            }
+            // Write to a temporary file first so a crash never leaves a half-written session behind
+            Path temporary = Files.createTempFile(directory, "session", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                stored.store(out, "LeetCode session tokens");
+            }
+            Files.move(temporary, sessionFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warn("Could not store LeetCode session to {}", sessionFile, e);
+        }
+    }
+
+    private static String hash(Session session) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] bytes = digest.digest((session.getCsrfToken() + "\n" + session.getLeetcodeSession())
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * An immutable pair of LeetCode tokens; identity tells callers whether the session
+     * they used is still the current one.
+     */
+    public static class Session {
+        private final String csrfToken;
+        private final String leetcodeSession;
+
+        public Session(String csrfToken, String leetcodeSession) {
+            this.csrfToken = csrfToken;
+            this.leetcodeSession = leetcodeSession;
+        }
+
+        public String getCsrfToken() { return csrfToken; }
+        public String getLeetcodeSession() { return leetcodeSession; }
+    }
+}
@@ -0,0 +1,89 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.repository.PollCycleWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Decides which of a user's recent submissions are new, without touching the
+ * database or Discord: results are handed to the poll cycle's {@link PollCycleWriter}.
+ */
+public class SubmissionDetector {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionDetector.class);
+
+    private final SeenSubmissionIndex seenSubmissions;
+    private final ZoneId timezone;
+
+    public SubmissionDetector(SeenSubmissionIndex seenSubmissions, ZoneId timezone) {
+        this.seenSubmissions = seenSubmissions;
+        this.timezone = timezone;
+    }
+
+    /**
+     * Finds the submissions not handled before and hands them, together with the ids seen
+     * and the new last check time, to the cycle's writer. Returns true if any new solve was found.
+     */
+    public boolean detect(TrackedUserRegistry.ActiveUser user, List<LeetCodeService.Submission> submissions,
+                          PollCycleWriter writer) {
+        String username = user.getUsername();
+        LocalDateTime lastCheck = user.getLastCheckTime();
+        LocalDateTime newestSubmissionTime = lastCheck;
+
+        logger.debug("Checking {} recent submissions of {} (last check {})", submissions.size(), username, lastCheck);
+
+        // Submissions are new when their id has not been seen before. Users without any
+        // seen ids yet (first poll after tracking) fall back to the last check time so
+        // that old solves are not announced.
+        SeenSubmissionIndex.UserRing seen = seenSubmissions.forUser(user.getId());
+        boolean bootstrap = seen.isEmpty();
+        List<String> newlySeenIds = new ArrayList<>();
+
+        // Process submissions in chronological order (oldest first)
+        List<LeetCodeService.Submission> chronological = new ArrayList<>(submissions);
+        Collections.reverse(chronological);
+        
+        boolean hasNewSubmissions = false;
+        
+        for (LeetCodeService.Submission submission : chronological) {
+            // Convert LeetCode timestamp (seconds) to our timezone
+            LocalDateTime submissionTime = Instant.ofEpochSecond(submission.getSubmitTime())
+                .atZone(timezone)
+                .toLocalDateTime();
+            
+            if (submissionTime.isAfter(newestSubmissionTime)) {
+                newestSubmissionTime = submissionTime;
+            }
+
+            // Claiming the id is atomic, so overlapping or retried checks announce it only once
+            boolean unseen = seen.add(submission.getId());
+            if (unseen) {
+                newlySeenIds.add(submission.getId());
+            }
+            
+            if (unseen && (!bootstrap || submissionTime.isAfter(lastCheck))) {
+                hasNewSubmissions = true;
+                logger.info("New submission {} of {} for {} at {}", submission.getId(), submission.getTitleSlug(),
+                    username, submissionTime);
+                writer.addSolve(new PollCycleWriter.DetectedSolve(user.getId(), username, submission.getId(),
+                    submission.getTitle(), submission.getTitleSlug(), submission.getLanguage(), submissionTime));
+            } else {
+                logger.trace("Skipping already seen submission {} of {}", submission.getId(), username);
+            }
+        }
+
+        writer.addSeenIds(user.getId(), newlySeenIds);
+        
+        // The last check time follows the newest submission seen rather than the local clock
+        if (newestSubmissionTime.isAfter(lastCheck)) {
+            writer.setLastCheckTime(user.getId(), newestSubmissionTime);
+        }
+        return hasNewSubmissions;
+    }
+}
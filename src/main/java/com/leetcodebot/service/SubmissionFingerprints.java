@@ -0,0 +1,52 @@
+package com.leetcodebot.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the newest submission id returned for each user. Recent submissions come
+ * back newest first, so when the first entry of a user's list matches the remembered
+ * id the whole list is unchanged and parsing, detection and database work for that
+ * user can be skipped. Ids are only remembered once the poll cycle that processed the
+ * lists has been persisted, so a list that was fetched but then lost to a failed
+ * request, parse or flush is processed again in full on the next poll.
+ */
+public class SubmissionFingerprints {
+    private final Map<String, String> newestIds = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Checks the newest submission id just received for a user against the remembered one.
+     */
+    boolean isUnchanged(String username, String newestId) {
+        if (newestId != null && newestId.equals(newestIds.get(username))) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * Remembers the newest submission id of each user, after the lists they head have
+     * been fully processed and persisted.
+     */
+    public void remember(Map<String, String> newestIdsByUser) {
+        newestIds.putAll(newestIdsByUser);
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+}
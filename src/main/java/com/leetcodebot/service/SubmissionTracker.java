@@ -1,332 +1,467 @@
 package com.leetcodebot.service;
 
 import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.ProblemMetadata;
 import com.leetcodebot.model.TrackedUser;
-import com.leetcodebot.model.SubmissionHistory;
-import com.leetcodebot.model.ProblemSolveHistory;
+import com.leetcodebot.model.UserStreak;
 import com.leetcodebot.repository.TrackedUserRepository;
+import com.leetcodebot.repository.ChannelSubscriptionRepository;
 import com.leetcodebot.repository.ProblemSolveHistoryRepository;
+import com.leetcodebot.repository.SeenSubmissionRepository;
+import com.leetcodebot.repository.PollCycleWriter;
+import com.leetcodebot.repository.SolveRollupRepository;
+import com.leetcodebot.repository.UserStreakRepository;
 import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.NoResultException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.time.Instant;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 import java.util.concurrent.*;
 
 public class SubmissionTracker {
+    private static final Logger logger = LoggerFactory.getLogger(SubmissionTracker.class);
+    private static final int SEEN_SUBMISSIONS_PER_USER = 32;
+    private static final int SEEN_SUBMISSIONS_RETENTION_DAYS = 30;
+    // Half a poll cycle, so a poll scheduled one cycle ahead is still due when the next tick runs a little early
+    private static final Duration POLL_DUE_GRACE = Duration.ofSeconds(30);
+
     private final LeetCodeService leetCodeService;
     private final DailyStatisticsService dailyStatisticsService;
+    private final ProblemMetadataService problemMetadataService;
     private final TrackedUserRepository userRepository;
+    private final ChannelSubscriptionRepository subscriptionRepository;
     private final ProblemSolveHistoryRepository solveHistoryRepository;
     private final ScheduledExecutorService scheduler;
-    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
-            .withZone(ZoneId.of("Europe/Warsaw"));
+    private final PollingEngine pollingEngine;
+    private final AdaptivePollSchedule pollSchedule;
+    private final SeenSubmissionIndex seenSubmissions;
+    private final SubmissionDetector submissionDetector;
+    private final NotificationDispatcher notificationDispatcher;
+    private final ChannelRegistry channelRegistry;
+    private final TrackedUserRegistry userRegistry;
+    private final LeaderboardService leaderboardService;
+    private final UserStreakRepository streakRepository;
+    private final Object trackingLock = new Object();
     private final JDA jda;
     private final ZoneId timezone = ZoneId.of("Europe/Warsaw");
 
     public SubmissionTracker(LeetCodeService leetCodeService, JDA jda) {
         this.leetCodeService = leetCodeService;
         this.jda = jda;
-        this.dailyStatisticsService = new DailyStatisticsService(leetCodeService, jda);
+        int problemCacheSize = Integer.parseInt(System.getenv().getOrDefault("PROBLEM_CACHE_SIZE", "4096"));
+        this.problemMetadataService = new ProblemMetadataService(leetCodeService, problemCacheSize);
         this.userRepository = new TrackedUserRepository();
+        this.subscriptionRepository = new ChannelSubscriptionRepository();
+        this.userRegistry = new TrackedUserRegistry();
+        this.channelRegistry = new ChannelRegistry(jda, subscriptionRepository, userRegistry);
+        jda.addEventListener(channelRegistry);
         this.solveHistoryRepository = new ProblemSolveHistoryRepository();
+        this.leaderboardService = new LeaderboardService(new SolveRollupRepository(), userRegistry, timezone);
+        this.streakRepository = new UserStreakRepository();
         this.scheduler = Executors.newScheduledThreadPool(1);
+        int pollConcurrency = Integer.parseInt(System.getenv().getOrDefault("POLL_CONCURRENCY", "8"));
+        this.pollingEngine = new PollingEngine(pollConcurrency, TimeUnit.MINUTES.toMillis(1));
+        int maxPollInterval = Integer.parseInt(System.getenv().getOrDefault("POLL_MAX_INTERVAL_MINUTES", "30"));
+        this.pollSchedule = new AdaptivePollSchedule(Duration.ofMinutes(maxPollInterval));
+        // The report waits until every user has been polled at least once after midnight
+        this.dailyStatisticsService = new DailyStatisticsService(problemMetadataService, channelRegistry,
+            Duration.ofMinutes(maxPollInterval + 1));
+        this.seenSubmissions = new SeenSubmissionIndex(SEEN_SUBMISSIONS_PER_USER);
+        this.submissionDetector = new SubmissionDetector(seenSubmissions, timezone);
+        int notificationWindow = Integer.parseInt(System.getenv().getOrDefault("NOTIFICATION_WINDOW_SECONDS", "5"));
+        this.notificationDispatcher = new NotificationDispatcher(channelRegistry, TimeUnit.SECONDS.toMillis(notificationWindow));
         
         // Verify database connectivity and tracked users on startup
         verifyDatabaseState();
+        backfillSubscriptionGuilds();
+
+        // From here on users are read from memory; every change is written through
+        userRegistry.load(userRepository, subscriptionRepository, solveHistoryRepository);
+        logger.info("Loaded {} active users into the registry", userRegistry.size());
         
         // Start periodic checking every 1 minute
         scheduler.scheduleAtFixedRate(this::checkSubmissions, 0, 1, TimeUnit.MINUTES);
+
+        // Seen ids only need to outlive the window in which LeetCode still lists them as recent
+        scheduler.scheduleAtFixedRate(this::pruneSeenSubmissions, 1, 24, TimeUnit.HOURS);
+
+        // Subscriptions to deleted channels are dropped in batches rather than failing every announcement
+        scheduler.scheduleAtFixedRate(this::pruneDeadChannels, 10, 10, TimeUnit.MINUTES);
+
+        // Catch up on streaks that broke while the bot was down, then sweep after every local midnight
+        breakInactiveStreaks();
+    }
+
+    private void breakInactiveStreaks() {
+        try {
+            int broken = streakRepository.breakInactiveStreaks(LocalDate.now(timezone));
+            logger.info("Broke {} inactive streaks", broken);
+        } catch (Exception e) {
+            logger.error("Failed to break inactive streaks", e);
+        } finally {
+            scheduleNextStreakSweep();
+        }
+    }
+
+    // Scheduled one day at a time so the sweep keeps firing at local midnight across DST changes
+    private void scheduleNextStreakSweep() {
+        long delay = LocalDate.now(timezone).plusDays(1).atStartOfDay(timezone).toInstant().toEpochMilli()
+            - System.currentTimeMillis();
+        scheduler.schedule(this::breakInactiveStreaks, Math.max(0, delay), TimeUnit.MILLISECONDS);
+    }
+
+    private void pruneSeenSubmissions() {
+        try {
+            int deleted = new SeenSubmissionRepository().deleteSeenBefore(
+                LocalDateTime.now(timezone).minusDays(SEEN_SUBMISSIONS_RETENTION_DAYS));
+            logger.info("Pruned {} old seen submission ids", deleted);
+        } catch (Exception e) {
+            logger.error("Failed to prune seen submission ids", e);
+        }
+    }
+
+    private void pruneDeadChannels() {
+        try {
+            // Deactivating users must not interleave with /track and /untrack
+            synchronized (trackingLock) {
+                channelRegistry.pruneDeadChannels();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to prune dead channels", e);
+        }
+    }
+
+    /**
+     * Fills in the guild of any subscription that does not know it yet, such as those
+     * moved over from the old {@code user_channels} table by the schema migration.
+     */
+    private void backfillSubscriptionGuilds() {
+        List<String> channelIds = subscriptionRepository.findChannelIdsWithoutGuild();
+        if (channelIds.isEmpty()) {
+            return;
+        }
+        Map<String, String> guildIdByChannel = new HashMap<>();
+        for (String channelId : channelIds) {
+            String guildId = channelRegistry.getGuildId(channelId);
+            if (guildId != null) {
+                guildIdByChannel.put(channelId, guildId);
+            }
+        }
+        subscriptionRepository.setGuildIds(guildIdByChannel);
+        logger.info("Resolved guilds for {} of {} channel subscriptions", guildIdByChannel.size(), channelIds.size());
     }
 
     private void verifyDatabaseState() {
         try {
             List<TrackedUser> activeUsers = userRepository.findAllActive();
-            System.out.println("Database connection successful!");
-            System.out.println("Found " + activeUsers.size() + " active tracked users:");
+            logger.info("Database connection successful, found {} active tracked users", activeUsers.size());
             for (TrackedUser user : activeUsers) {
-                System.out.println("- " + user.getUsername() + " (tracked in " + 
-                    user.getChannelIds().size() + " channels)");
-                
                 // Verify last submission time is not too old
                 if (user.getLastCheckTime().isBefore(LocalDateTime.now().minusDays(1))) {
-                    System.out.println("  Warning: Last check time is old: " + user.getLastCheckTime());
-                    System.out.println("  Updating to current time to prevent spam...");
+                    logger.warn("Last check time of {} is old ({}), updating to current time to prevent spam",
+                        user.getUsername(), user.getLastCheckTime());
                     user.setLastCheckTime(LocalDateTime.now());
                     userRepository.updateLastCheckTime(user, LocalDateTime.now());
                 }
             }
         } catch (Exception e) {
-            System.err.println("Failed to verify database state: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Failed to verify database state", e);
             // Don't throw - let the application continue, but log the error
         }
     }
 
     public void trackUser(String username, MessageChannel channel) {
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
-        try {
-            entityManager.getTransaction().begin();
-            Optional<TrackedUser> existingUser = Optional.ofNullable(
-                entityManager.createQuery("FROM TrackedUser WHERE username = :username", TrackedUser.class)
+        String guildId = channel instanceof GuildChannel guildChannel ? guildChannel.getGuild().getId() : null;
+        TrackedUserRegistry.ActiveUser activeUser;
+        synchronized (trackingLock) {
+            EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+            try {
+                entityManager.getTransaction().begin();
+                Optional<TrackedUser> existingUser = Optional.ofNullable(
+                    entityManager.createQuery("FROM TrackedUser WHERE username = :username", TrackedUser.class)
+                        .setParameter("username", username)
+                        .getResultStream()
+                        .findFirst()
+                        .orElse(null));
+
+                TrackedUser user;
+                boolean reactivated = false;
+                if (existingUser.isPresent()) {
+                    user = existingUser.get();
+                    if (!user.isActive()) {
+                        // Start over as if newly tracked, so solves made while untracked are not announced
+                        reactivated = true;
+                        user.setActive(true);
+                        user.updateLastCheckTime();
+                        user.setNextPollAt(null);
+                        entityManager.createQuery("DELETE FROM SeenSubmission WHERE userId = :userId")
+                            .setParameter("userId", user.getId())
+                            .executeUpdate();
+                    }
+                    user.addSubscription(guildId, channel.getId());
+                } else {
+                    user = new TrackedUser(username, guildId, channel.getId());
+                    entityManager.persist(user);
+                }
+                entityManager.getTransaction().commit();
+
+                if (reactivated) {
+                    seenSubmissions.evict(user.getId());
+                }
+                activeUser = userRegistry.subscribe(user, guildId, channel.getId());
+            } catch (Exception e) {
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+                throw e;
+            } finally {
+                entityManager.close();
+            }
+        }
+
+        // Start tracking in DailyStatisticsService
+        dailyStatisticsService.trackUserInChannel(username, channel);
+
+        logger.info("Started tracking user {} in channel {}", username, channel.getName());
+
+        // Immediately check for submissions
+        checkSubmissionsForUser(activeUser);
+    }
+
+    public void untrackUser(String username, MessageChannel channel) {
+        synchronized (trackingLock) {
+            EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+            try {
+                // Use LEFT JOIN FETCH to eagerly load the subscriptions
+                TrackedUser user = entityManager.createQuery(
+                    "FROM TrackedUser u LEFT JOIN FETCH u.subscriptions WHERE u.username = :username AND u.active = true",
+                    TrackedUser.class)
                     .setParameter("username", username)
-                    .getResultStream()
-                    .findFirst()
-                    .orElse(null));
-            
-            TrackedUser user;
-            if (existingUser.isPresent()) {
-                user = existingUser.get();
-                user.addChannelId(channel.getId());
-                user = entityManager.merge(user);
-            } else {
-                user = new TrackedUser(username, channel.getId());
-                entityManager.persist(user);
+                    .getSingleResult();
+
+                entityManager.getTransaction().begin();
+                user.removeSubscription(channel.getId());
+                boolean deactivated = user.getSubscriptions().isEmpty();
+                if (deactivated) {
+                    user.setActive(false);
+                }
+
+                entityManager.merge(user);
+                entityManager.getTransaction().commit();
+
+                userRegistry.unsubscribe(username, channel.getId());
+                if (deactivated) {
+                    userRegistry.remove(username);
+                    // Stop tracking in DailyStatisticsService
+                    dailyStatisticsService.untrackUser(username);
+                    logger.info("Stopped tracking user {}", username);
+                }
+            } catch (Exception e) {
+                if (entityManager.getTransaction().isActive()) {
+                    entityManager.getTransaction().rollback();
+                }
+                logger.error("Error untracking user {}", username, e);
+            } finally {
+                if (entityManager != null) {
+                    entityManager.close();
+                }
             }
-            entityManager.getTransaction().commit();
-            
-            // Start tracking in DailyStatisticsService
-            dailyStatisticsService.trackUserInChannel(username, channel);
-            
-            System.out.println("Started tracking user: " + username + " in channel: " + channel.getName());
-            
-            // Immediately check for submissions
-            checkSubmissionsForUser(username);
+        }
+    }
+
+    // A scheduleAtFixedRate task that throws is never run again, so no failure may escape a cycle
+    private void checkSubmissions() {
+        try {
+            runPollCycle();
         } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+            logger.error("Poll cycle failed", e);
+        }
+    }
+
+    private void runPollCycle() {
+        if (leetCodeService.isCircuitOpen()) {
+            logger.warn("LeetCode is degraded, skipping poll cycle");
+            return;
+        }
+        LocalDateTime cycleStart = LocalDateTime.now(timezone);
+        List<TrackedUserRegistry.ActiveUser> activeUsers = userRegistry.getActiveUsers();
+
+        // nextPollAt was derived from an earlier cycleStart, which drifts with thread and flush timing
+        LocalDateTime dueBy = cycleStart.plus(POLL_DUE_GRACE);
+        List<TrackedUserRegistry.ActiveUser> dueUsers = new ArrayList<>();
+        for (TrackedUserRegistry.ActiveUser user : activeUsers) {
+            if (user.isPollDue(dueBy)) {
+                dueUsers.add(user);
             }
-            throw e;
-        } finally {
-            entityManager.close();
         }
+        logger.info("Polling {} of {} active users", dueUsers.size(), activeUsers.size());
+
+        // Group users so that each poll task covers one batched GraphQL request
+        int batchSize = leetCodeService.getBatchSize();
+        List<List<TrackedUserRegistry.ActiveUser>> batches = new ArrayList<>();
+        for (int i = 0; i < dueUsers.size(); i += batchSize) {
+            batches.add(dueUsers.subList(i, Math.min(i + batchSize, dueUsers.size())));
+        }
+
+        // Poll tasks only detect; everything they want written goes out in one transaction afterwards
+        PollCycleWriter writer = new PollCycleWriter();
+        pollingEngine.runCycle(batches, batch -> checkSubmissionsForBatch(batch, cycleStart, writer));
+        flushAndAnnounce(writer);
     }
 
-    public void untrackUser(String username, MessageChannel channel) {
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+    private void checkSubmissionsForBatch(List<TrackedUserRegistry.ActiveUser> users, LocalDateTime cycleStart,
+                                          PollCycleWriter writer) {
+        List<String> usernames = new ArrayList<>(users.size());
+        for (TrackedUserRegistry.ActiveUser user : users) {
+            usernames.add(user.getUsername());
+        }
+
+        Map<String, List<LeetCodeService.Submission>> submissionsByUser;
         try {
-            // Use LEFT JOIN FETCH to eagerly load channelIds
-            TrackedUser user = entityManager.createQuery(
-                "FROM TrackedUser u LEFT JOIN FETCH u.channelIds WHERE u.username = :username AND u.active = true",
-                TrackedUser.class)
-                .setParameter("username", username)
-                .getSingleResult();
-
-            entityManager.getTransaction().begin();
-            user.removeChannelId(channel.getId());
-            
-            if (user.getChannelIds().isEmpty()) {
-                user.setActive(false);
-                // Stop tracking in DailyStatisticsService
-                dailyStatisticsService.untrackUser(username);
-                System.out.println("Stopped tracking user: " + username);
-            }
-            
-            entityManager.merge(user);
-            entityManager.getTransaction().commit();
-            
-        } catch (Exception e) {
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
+            submissionsByUser = leetCodeService.getRecentSubmissions(usernames);
+        } catch (IOException e) {
+            logger.error("Error fetching submissions for {} users: {}", usernames.size(), e.getMessage());
+            return;
+        }
+        logger.debug("Received submissions for {} of {} users from LeetCode", submissionsByUser.size(), usernames.size());
+
+        for (TrackedUserRegistry.ActiveUser user : users) {
+            List<LeetCodeService.Submission> submissions = submissionsByUser.get(user.getUsername());
+            if (submissions == null) {
+                logger.warn("No submissions returned for user {}", user.getUsername());
+                continue;
             }
-            System.err.println("Error untracking user " + username + ": " + e.getMessage());
-            e.printStackTrace();
-        } finally {
-            if (entityManager != null) {
-                entityManager.close();
+            // An empty list means nothing changed since the last poll, so there is nothing to detect
+            boolean solved = !submissions.isEmpty() && submissionDetector.detect(user, submissions, writer);
+            if (!submissions.isEmpty() && submissions.get(0).getId() != null) {
+                writer.setNewestSubmissionId(user.getUsername(), submissions.get(0).getId());
             }
+
+            // Users who just solved something snap back to fast polling, others back off with inactivity
+            Duration interval = solved
+                ? pollSchedule.afterSolve()
+                : pollSchedule.intervalFor(user.getLastSolvedAt(), cycleStart);
+            writer.setNextPollAt(user.getId(), cycleStart.plus(interval));
         }
     }
 
-    private void checkSubmissions() {
-        System.out.println("\nChecking submissions for all users at: " + 
-            timeFormatter.format(Instant.now()));
-        List<TrackedUser> activeUsers = userRepository.findAllActive();
-        for (TrackedUser user : activeUsers) {
-            checkSubmissionsForUser(user.getUsername());
+    public PollingEngine getPollingEngine() {
+        return pollingEngine;
+    }
+
+    public NotificationDispatcher getNotificationDispatcher() {
+        return notificationDispatcher;
+    }
+
+    public ChannelRegistry getChannelRegistry() {
+        return channelRegistry;
+    }
+
+    public TrackedUserRegistry getUserRegistry() {
+        return userRegistry;
+    }
+
+    public LeaderboardService getLeaderboardService() {
+        return leaderboardService;
+    }
+
+    /**
+     * Returns the streak of an actively tracked user, or null if they are not tracked or
+     * have no recorded solves yet.
+     */
+    public UserStreak getStreak(String username) {
+        TrackedUserRegistry.ActiveUser user = userRegistry.get(username);
+        return user == null ? null : streakRepository.findByUserId(user.getId());
+    }
+
+    private void checkSubmissionsForUser(TrackedUserRegistry.ActiveUser user) {
+        try {
+            PollCycleWriter writer = new PollCycleWriter();
+            submissionDetector.detect(user, leetCodeService.getRecentSubmissions(user.getUsername()), writer);
+            flushAndAnnounce(writer);
+        } catch (IOException e) {
+            logger.error("Error fetching submissions for {}: {}", user.getUsername(), e.getMessage());
         }
     }
 
-    private void checkSubmissionsForUser(String username) {
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+    private void flushAndAnnounce(PollCycleWriter writer) {
+        List<PollCycleWriter.DetectedSolve> solves;
         try {
-            TrackedUser user = entityManager.createQuery(
-                "FROM TrackedUser u LEFT JOIN FETCH u.channelIds WHERE u.username = :username", TrackedUser.class)
-                .setParameter("username", username)
-                .getSingleResult();
-            
-            System.out.println("\nChecking submissions for user: " + username);
-            System.out.println("User has " + user.getChannelIds().size() + " tracking channels: " + 
-                String.join(", ", user.getChannelIds()));
-            
-            List<LeetCodeService.Submission> submissions = leetCodeService.getRecentSubmissions(username);
-            System.out.println("Received " + submissions.size() + " submissions from LeetCode");
-
-            LocalDateTime lastCheck = user.getLastCheckTime();
-            LocalDateTime currentTime = LocalDateTime.now(timezone);
-
-            System.out.println("Last check time: " + lastCheck);
-
-            // Process submissions in chronological order (oldest first)
-            Collections.reverse(submissions);
-            
-            boolean hasNewSubmissions = false;
-            
-            for (LeetCodeService.Submission submission : submissions) {
-                // Convert LeetCode timestamp (seconds) to our timezone
-                LocalDateTime submissionTime = Instant.ofEpochSecond(submission.getSubmitTime())
-                    .atZone(timezone)
-                    .toLocalDateTime();
-                
-                System.out.println("Processing submission: " + submission.getTitle() + 
-                    " submitted at: " + submissionTime + " (Europe/Warsaw)");
-                System.out.println("Last check time was: " + lastCheck + " (Europe/Warsaw)");
-                
-                // Only process submissions that are newer than the last check
-                if (submissionTime.isAfter(lastCheck)) {
-                    hasNewSubmissions = true;
-                    System.out.println("New submission found!");
-                    
-                    Optional<ProblemSolveHistory> historyOpt = solveHistoryRepository.findByUserAndProblem(
-                        user, submission.getTitleSlug());
-                    
-                    boolean isResolved = historyOpt.isPresent();
-                    String resolveStatus = isResolved ? " (Re-solved! 🔄)" : "";
-                    
-                    String message = String.format("🎉 **%s** has %ssuccessfully solved **%s**!%s\n" +
-                            "Problem Link: https://leetcode.com/problems/%s/",
-                            username,
-                            isResolved ? "re-" : "",
-                            submission.getTitle(),
-                            resolveStatus,
-                            submission.getTitleSlug());
-                    
-                    // Update solve history
-                    if (isResolved) {
-                        System.out.println("Updating solve count for existing problem");
-                        solveHistoryRepository.updateSolveCount(historyOpt.get());
-                    } else {
-                        System.out.println("Creating new solve history record");
-                        ProblemSolveHistory newHistory = new ProblemSolveHistory(user, submission.getTitleSlug());
-                        solveHistoryRepository.saveSolveHistory(newHistory);
-                    }
-                    
-                    // Record submission for daily statistics
-                    System.out.println("Recording submission for daily statistics");
-                    dailyStatisticsService.recordSubmission(username, submission.getId(), 
-                        submission.getTitle(), submission.getTitleSlug());
-                    
-                    // Send the message to all tracking channels
-                    Set<String> channelIds = new HashSet<>(user.getChannelIds()); // Copy to avoid lazy loading issues
-                    System.out.println("Attempting to send notifications to " + channelIds.size() + " channels");
-                    for (String channelId : channelIds) {
-                        System.out.println("Looking for channel: " + channelId);
-                        MessageChannel channel = findChannelById(channelId);
-                        if (channel != null) {
-                            System.out.println("Found channel " + channel.getName() + ", sending message: " + message);
-                            channel.sendMessage(message).queue(
-                                success -> System.out.println("Successfully sent announcement to channel: " + channel.getName()),
-                                error -> {
-                                    System.err.println("Failed to send announcement to channel: " + channel.getName());
-                                    System.err.println("Error: " + error.getMessage());
-                                    error.printStackTrace();
-                                }
-                            );
-                        } else {
-                            System.err.println("Channel not found: " + channelId);
-                        }
-                    }
-                } else {
-                    System.out.println("Skipping old submission (submitted before last check)");
-                }
-            }
-            
-            // Only update last check time if we actually processed submissions
-            if (hasNewSubmissions) {
-                // Update last check time
-                entityManager.getTransaction().begin();
-                user.setLastCheckTime(currentTime);
-                entityManager.merge(user);
-                entityManager.getTransaction().commit();
-                System.out.println("Updated last check time to: " + currentTime);
-            } else {
-                System.out.println("No new submissions found, keeping last check time as: " + lastCheck);
-            }
-            
+            solves = writer.flush(resolveMetadata(writer.getSolvedSlugs()));
         } catch (Exception e) {
-            System.err.println("Error checking submissions for " + username + ": " + e.getMessage());
-            e.printStackTrace();
-            if (entityManager.getTransaction().isActive()) {
-                entityManager.getTransaction().rollback();
-            }
-        } finally {
-            entityManager.close();
+            logger.error("Failed to persist poll results", e);
+            // Nothing was written, so let the next check see these submissions again
+            writer.getSeenIds().forEach(seenSubmissions::forget);
+            return;
+        }
+        // Only now may the next poll skip these users' lists when they come back unchanged
+        leetCodeService.getFingerprints().remember(writer.getNewestSubmissionIds());
+        userRegistry.recordPoll(writer.getLastCheckTimes(), writer.getNextPollTimes());
+
+        for (PollCycleWriter.DetectedSolve solve : solves) {
+            userRegistry.recordSolve(solve.getUserId(), solve.getSubmittedAt());
+            announceSolve(solve, userRegistry.getChannelIds(solve.getUsername()));
         }
     }
 
-    public boolean isUserTracked(String username, MessageChannel channel) {
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
-        try {
-            TrackedUser user = entityManager.createQuery(
-                    "FROM TrackedUser WHERE username = :username AND active = true", TrackedUser.class)
-                    .setParameter("username", username)
-                    .getSingleResult();
-            // Access channelIds within the session
-            return user.getChannelIds().contains(channel.getId());
-        } catch (NoResultException e) {
-            return false;
-        } finally {
-            if (entityManager != null) {
-                entityManager.close();
+    /**
+     * Metadata of the solved problems for the submission log; problems whose metadata
+     * cannot be fetched right now are logged without it.
+     */
+    private Map<String, ProblemMetadata> resolveMetadata(Set<String> titleSlugs) {
+        if (titleSlugs.isEmpty()) {
+            return Map.of();
+        }
+        problemMetadataService.preload(titleSlugs);
+        Map<String, ProblemMetadata> metadataBySlug = new HashMap<>();
+        for (String titleSlug : titleSlugs) {
+            try {
+                metadataBySlug.put(titleSlug, problemMetadataService.getMetadata(titleSlug));
+            } catch (IOException e) {
+                logger.warn("Logging solves of {} without metadata: {}", titleSlug, e.getMessage());
             }
         }
+        return metadataBySlug;
     }
 
-    private MessageChannel findChannelById(String channelId) {
-        System.out.println("Looking for channel with ID: " + channelId);
-        MessageChannel channel = jda.getChannelById(MessageChannel.class, channelId);
-        if (channel == null) {
-            System.err.println("Failed to find channel with ID: " + channelId);
-        } else {
-            System.out.println("Found channel: " + channel.getName());
+    private void announceSolve(PollCycleWriter.DetectedSolve solve, Set<String> channelIds) {
+        boolean isResolved = solve.isResolved();
+        String resolveStatus = isResolved ? " (Re-solved! 🔄)" : "";
+        
+        String message = String.format("🎉 **%s** has %ssuccessfully solved **%s**!%s\n" +
+                "Problem Link: https://leetcode.com/problems/%s/",
+                solve.getUsername(),
+                isResolved ? "re-" : "",
+                solve.getTitle(),
+                resolveStatus,
+                solve.getTitleSlug());
+        
+        // Record submission for daily statistics, resolving problem metadata on first solve
+        dailyStatisticsService.recordSubmission(solve.getUsername(), solve.getTitleSlug(), solve.getSubmittedAt());
+        
+        // Queue the message for all tracking channels; bursts are coalesced per channel
+        logger.info("{} solved {}, announcing in {} channels", solve.getUsername(), solve.getTitleSlug(), channelIds.size());
+        for (String channelId : channelIds) {
+            notificationDispatcher.enqueue(channelId, message);
         }
-        return channel;
     }
 
+    public boolean isUserTracked(String username, MessageChannel channel) {
+        return userRegistry.isTracked(username, channel.getId());
+    }
+
+    /**
+     * Returns the number of this guild's channels each active user is tracked in.
+     */
     public Map<String, Integer> getTrackedUsersInServer(String guildId) {
-        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
-        Map<String, Integer> trackedUsers = new HashMap<>();
-        
-        try {
-            // Get all active users with their channel IDs eagerly loaded
-            List<TrackedUser> users = entityManager.createQuery(
-                "FROM TrackedUser u LEFT JOIN FETCH u.channelIds WHERE u.active = true",
-                TrackedUser.class
-            ).getResultList();
-            
-            // Filter channels by guild ID and count channels per user
-            for (TrackedUser user : users) {
-                long channelsInServer = user.getChannelIds().stream()
-                    .map(channelId -> jda.getChannelById(MessageChannel.class, channelId))
-                    .filter(channel -> channel != null && 
-                        channel instanceof net.dv8tion.jda.api.entities.channel.concrete.TextChannel &&
-                        ((net.dv8tion.jda.api.entities.channel.concrete.TextChannel) channel).getGuild().getId().equals(guildId))
-                    .count();
-                
-                if (channelsInServer > 0) {
-                    trackedUsers.put(user.getUsername(), (int) channelsInServer);
-                }
-            }
-            
-            return trackedUsers;
-        } finally {
-            entityManager.close();
-        }
+        return userRegistry.countByGuild(guildId);
     }
-} 
\ No newline at end of file
+}
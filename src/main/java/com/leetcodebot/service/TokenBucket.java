@@ -0,0 +1,51 @@
+package com.leetcodebot.service;
+
+/**
+ * Blocking token bucket: holds up to {@code capacity} tokens and refills at
+ * {@code tokensPerSecond}. Callers that find it empty wait for the next token, so
+ * bursts are smoothed out to the configured rate instead of being sent at once.
+ */
+public class TokenBucket {
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, double tokensPerSecond) {
+        if (capacity < 1 || tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket needs a capacity of at least 1 and a positive rate");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Takes one token, waiting for it if necessary. Returns how long the caller waited
+     * in milliseconds, so callers can count how often they were held back.
+     */
+    public long acquire() throws InterruptedException {
+        long waitedNanos = 0;
+        while (true) {
+            long sleepNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= 1) {
+                    tokens -= 1;
+                    return waitedNanos / 1_000_000;
+                }
+                sleepNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+            }
+            long start = System.nanoTime();
+            Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
+            waitedNanos += System.nanoTime() - start;
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
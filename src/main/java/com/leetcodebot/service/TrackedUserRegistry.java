@@ -0,0 +1,300 @@
+package com.leetcodebot.service;
+
+import com.leetcodebot.model.TrackedUser;
+import com.leetcodebot.repository.ChannelSubscriptionRepository;
+import com.leetcodebot.repository.ProblemSolveHistoryRepository;
+import com.leetcodebot.repository.TrackedUserRepository;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory view of the active tracked users, their channel subscriptions and poll
+ * state, loaded once at startup so that polling, announcing and the tracking commands
+ * never query for users. The database stays the source of truth: every change is
+ * applied here only after the transaction that stored it has committed. Users are also
+ * indexed by the guilds they are tracked in, so per-guild commands only look at that
+ * guild's users; the index is only changed under the registry's lock.
+ */
+public class TrackedUserRegistry {
+    private final Map<Long, ActiveUser> usersById = new ConcurrentHashMap<>();
+    private final Map<String, ActiveUser> usersByName = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> userIdsByGuild = new ConcurrentHashMap<>();
+
+    /**
+     * Replaces the registry's contents with the active users as currently stored.
+     */
+    public synchronized void load(TrackedUserRepository userRepository,
+                                  ChannelSubscriptionRepository subscriptionRepository,
+                                  ProblemSolveHistoryRepository solveHistoryRepository) {
+        Map<Long, Map<String, String>> subscriptions = subscriptionRepository.findActiveSubscriptions();
+        Map<String, LocalDateTime> lastSolvedAt = solveHistoryRepository.findLastSolvedAtByActiveUser();
+        usersById.clear();
+        usersByName.clear();
+        userIdsByGuild.clear();
+        for (TrackedUser user : userRepository.findAllActive()) {
+            ActiveUser activeUser = new ActiveUser(user.getId(), user.getUsername(), user.getLastCheckTime(),
+                user.getNextPollAt(), lastSolvedAt.get(user.getUsername()));
+            subscriptions.getOrDefault(user.getId(), Map.of()).forEach((channelId, guildId) -> {
+                activeUser.addChannel(channelId, guildId);
+                indexGuild(guildId, activeUser.getId());
+            });
+            usersById.put(activeUser.getId(), activeUser);
+            usersByName.put(activeUser.getUsername(), activeUser);
+        }
+    }
+
+    public List<ActiveUser> getActiveUsers() {
+        return new ArrayList<>(usersById.values());
+    }
+
+    public ActiveUser get(String username) {
+        return usersByName.get(username);
+    }
+
+    public int size() {
+        return usersById.size();
+    }
+
+    public boolean isTracked(String username, String channelId) {
+        ActiveUser user = usersByName.get(username);
+        return user != null && user.isSubscribed(channelId);
+    }
+
+    /**
+     * Returns how many channels of the guild each active user is tracked in, ordered by username.
+     */
+    public Map<String, Integer> countByGuild(String guildId) {
+        Map<String, Integer> channelCounts = new TreeMap<>();
+        for (Long userId : userIdsByGuild.getOrDefault(guildId, Set.of())) {
+            ActiveUser user = usersById.get(userId);
+            if (user == null) {
+                continue;
+            }
+            int channels = user.countChannelsInGuild(guildId);
+            if (channels > 0) {
+                channelCounts.put(user.getUsername(), channels);
+            }
+        }
+        return channelCounts;
+    }
+
+    /**
+     * Ids of the active users tracked in at least one channel of the guild.
+     */
+    public Set<Long> getUserIdsInGuild(String guildId) {
+        return new HashSet<>(userIdsByGuild.getOrDefault(guildId, Set.of()));
+    }
+
+    public Set<String> getChannelIds(String username) {
+        ActiveUser user = usersByName.get(username);
+        return user == null ? Set.of() : user.getChannelIds();
+    }
+
+    /**
+     * Number of distinct channels at least one active user is announced in.
+     */
+    public int countChannels() {
+        Set<String> channelIds = new HashSet<>();
+        for (ActiveUser user : usersById.values()) {
+            channelIds.addAll(user.getChannelIds());
+        }
+        return channelIds.size();
+    }
+
+    /**
+     * Records a committed subscription, registering the user if they were not active.
+     */
+    public synchronized ActiveUser subscribe(TrackedUser user, String guildId, String channelId) {
+        ActiveUser activeUser = usersById.get(user.getId());
+        if (activeUser == null) {
+            activeUser = new ActiveUser(user.getId(), user.getUsername(), user.getLastCheckTime(),
+                user.getNextPollAt(), null);
+            usersById.put(activeUser.getId(), activeUser);
+            usersByName.put(activeUser.getUsername(), activeUser);
+        }
+        activeUser.addChannel(channelId, guildId);
+        indexGuild(guildId, activeUser.getId());
+        return activeUser;
+    }
+
+    public synchronized void unsubscribe(String username, String channelId) {
+        ActiveUser user = usersByName.get(username);
+        if (user != null) {
+            unindexGuilds(user, user.removeChannels(List.of(channelId)));
+        }
+    }
+
+    /**
+     * Forgets a user who was deactivated.
+     */
+    public synchronized void remove(String username) {
+        ActiveUser user = usersByName.remove(username);
+        if (user != null) {
+            usersById.remove(user.getId());
+            for (String guildId : user.getGuildIds()) {
+                Set<Long> userIds = userIdsByGuild.get(guildId);
+                if (userIds != null) {
+                    userIds.remove(user.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the channels from every user's subscriptions, after they were removed from the database.
+     */
+    public synchronized void removeChannels(Collection<String> channelIds) {
+        for (ActiveUser user : usersById.values()) {
+            unindexGuilds(user, user.removeChannels(channelIds));
+        }
+    }
+
+    private void indexGuild(String guildId, Long userId) {
+        // Subscriptions whose guild is not known yet are not listed under any guild
+        if (guildId != null) {
+            userIdsByGuild.computeIfAbsent(guildId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+        }
+    }
+
+    private void unindexGuilds(ActiveUser user, Set<String> guildIds) {
+        for (String guildId : guildIds) {
+            Set<Long> userIds = userIdsByGuild.get(guildId);
+            if (userIds != null && user.countChannelsInGuild(guildId) == 0) {
+                userIds.remove(user.getId());
+            }
+        }
+    }
+
+    /**
+     * Applies the last-check and next-poll times a poll cycle has just written.
+     */
+    public void recordPoll(Map<Long, LocalDateTime> lastCheckTimes, Map<Long, LocalDateTime> nextPollTimes) {
+        lastCheckTimes.forEach((userId, lastCheckTime) -> {
+            ActiveUser user = usersById.get(userId);
+            if (user != null) {
+                user.lastCheckTime = lastCheckTime;
+            }
+        });
+        nextPollTimes.forEach((userId, nextPollAt) -> {
+            ActiveUser user = usersById.get(userId);
+            if (user != null) {
+                user.nextPollAt = nextPollAt;
+            }
+        });
+    }
+
+    /**
+     * Records a solve submitted at {@code solvedAt}; an older submission detected late
+     * does not move the user's last solve time back.
+     */
+    public void recordSolve(Long userId, LocalDateTime solvedAt) {
+        ActiveUser user = usersById.get(userId);
+        if (user != null) {
+            synchronized (user) {
+                if (user.lastSolvedAt == null || solvedAt.isAfter(user.lastSolvedAt)) {
+                    user.lastSolvedAt = solvedAt;
+                }
+            }
+        }
+    }
+
+    /**
+     * An active user as last committed. Poll state is only written by the registry.
+     */
+    public static class ActiveUser {
+        private final Long id;
+        private final String username;
+        private final Map<String, String> guildByChannel = new HashMap<>();
+        private volatile LocalDateTime lastCheckTime;
+        private volatile LocalDateTime nextPollAt;
+        private volatile LocalDateTime lastSolvedAt;
+
+        public ActiveUser(Long id, String username, LocalDateTime lastCheckTime, LocalDateTime nextPollAt,
+                          LocalDateTime lastSolvedAt) {
+            this.id = id;
+            this.username = username;
+            this.lastCheckTime = lastCheckTime;
+            this.nextPollAt = nextPollAt;
+            this.lastSolvedAt = lastSolvedAt;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public LocalDateTime getLastCheckTime() {
+            return lastCheckTime;
+        }
+
+        public LocalDateTime getNextPollAt() {
+            return nextPollAt;
+        }
+
+        /**
+         * Time of the user's latest recorded solve, or null if none is known.
+         */
+        public LocalDateTime getLastSolvedAt() {
+            return lastSolvedAt;
+        }
+
+        /**
+         * A user without a scheduled poll time (newly tracked or never polled) is always due.
+         */
+        public boolean isPollDue(LocalDateTime now) {
+            LocalDateTime next = nextPollAt;
+            return next == null || !next.isAfter(now);
+        }
+
+        public synchronized Set<String> getChannelIds() {
+            return new HashSet<>(guildByChannel.keySet());
+        }
+
+        public synchronized boolean isSubscribed(String channelId) {
+            return guildByChannel.containsKey(channelId);
+        }
+
+        private synchronized int countChannelsInGuild(String guildId) {
+            int channels = 0;
+            for (String channelGuildId : guildByChannel.values()) {
+                if (guildId.equals(channelGuildId)) {
+                    channels++;
+                }
+            }
+            return channels;
+        }
+
+        private synchronized void addChannel(String channelId, String guildId) {
+            guildByChannel.putIfAbsent(channelId, guildId);
+        }
+
+        private synchronized Set<String> getGuildIds() {
+            Set<String> guildIds = new HashSet<>();
+            for (String guildId : guildByChannel.values()) {
+                if (guildId != null) {
+                    guildIds.add(guildId);
+                }
+            }
+            return guildIds;
+        }
+
+        /**
+         * Removes the channels and returns the (known) guilds the removed ones belonged to.
+         */
+        private synchronized Set<String> removeChannels(Collection<String> channelIds) {
+            Set<String> guildIds = new HashSet<>();
+            for (String channelId : channelIds) {
+                String guildId = guildByChannel.remove(channelId);
+                if (guildId != null) {
+                    guildIds.add(guildId);
+                }
+            }
+            return guildIds;
+        }
+    }
+}
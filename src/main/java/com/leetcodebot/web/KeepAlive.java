@@ -1,10 +1,15 @@
 package com.leetcodebot.web;
 
+import com.leetcodebot.metrics.Metrics;
 import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 
 public class KeepAlive {
+    private static final Logger logger = LoggerFactory.getLogger(KeepAlive.class);
     private final HttpServer server;
 
     public KeepAlive() throws IOException {
@@ -20,11 +25,20 @@ public class KeepAlive {
             exchange.getResponseBody().close();
         });
         
+        // Prometheus scrape endpoint
+        server.createContext("/metrics", exchange -> {
+            byte[] response = Metrics.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.getResponseBody().close();
+        });
+        
         server.setExecutor(null);
     }
 
     public void start() {
         server.start();
-        System.out.println("Keep-alive server started on port " + server.getAddress().getPort());
+        logger.info("Keep-alive server started on port {}", server.getAddress().getPort());
     }
 } 
\ No newline at end of file
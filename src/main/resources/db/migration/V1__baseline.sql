@@ -0,0 +1,66 @@
+-- The schema as hbm2ddl used to create it. Databases created that way already have
+-- these tables, so every statement only adds what is missing.
+
+CREATE TABLE IF NOT EXISTS tracked_users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    active BOOLEAN NOT NULL,
+    lastCheckTime TIMESTAMP(6) NOT NULL,
+    next_poll_at TIMESTAMP(6)
+);
+
+ALTER TABLE tracked_users ADD COLUMN IF NOT EXISTS next_poll_at TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS channel_subscription (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES tracked_users (id),
+    guild_id VARCHAR(255),
+    channel_id VARCHAR(255) NOT NULL,
+    UNIQUE (user_id, channel_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_channel_subscription_guild ON channel_subscription (guild_id, user_id);
+
+CREATE INDEX IF NOT EXISTS idx_channel_subscription_channel ON channel_subscription (channel_id);
+
+-- Channel ids per user from before subscriptions knew their guild; moved over by V6
+CREATE TABLE IF NOT EXISTS user_channels (
+    user_id BIGINT NOT NULL REFERENCES tracked_users (id),
+    channel_id VARCHAR(255) NOT NULL,
+    PRIMARY KEY (user_id, channel_id)
+);
+
+CREATE TABLE IF NOT EXISTS problem_solve_history (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES tracked_users (id),
+    problemSlug VARCHAR(255) NOT NULL,
+    lastSolvedAt TIMESTAMP(6) NOT NULL,
+    solveCount INTEGER NOT NULL,
+    UNIQUE (user_id, problemSlug)
+);
+
+CREATE TABLE IF NOT EXISTS submission_history (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tracked_user_id BIGINT NOT NULL REFERENCES tracked_users (id),
+    problemId VARCHAR(255) NOT NULL,
+    problemTitle VARCHAR(255) NOT NULL,
+    problemSlug VARCHAR(255) NOT NULL,
+    difficulty VARCHAR(255) NOT NULL,
+    solvedAt TIMESTAMP(6) NOT NULL,
+    language VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS seen_submissions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    submission_id VARCHAR(255) NOT NULL,
+    seen_at TIMESTAMP(6) NOT NULL,
+    UNIQUE (user_id, submission_id)
+);
+
+CREATE TABLE IF NOT EXISTS problem_metadata (
+    title_slug VARCHAR(255) PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    difficulty VARCHAR(255) NOT NULL,
+    frontend_id VARCHAR(255)
+);
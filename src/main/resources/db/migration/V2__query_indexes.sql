@@ -0,0 +1,11 @@
+-- Per-user solve history by time, and the daily report's range over all users
+CREATE INDEX IF NOT EXISTS idx_problem_solve_history_user_solved ON problem_solve_history (user_id, lastSolvedAt);
+
+CREATE INDEX IF NOT EXISTS idx_problem_solve_history_solved ON problem_solve_history (lastSolvedAt);
+
+CREATE INDEX IF NOT EXISTS idx_submission_history_user_solved ON submission_history (tracked_user_id, solvedAt);
+
+CREATE INDEX IF NOT EXISTS idx_tracked_users_active ON tracked_users (active);
+
+-- Daily pruning of old seen ids
+CREATE INDEX IF NOT EXISTS idx_seen_submissions_seen_at ON seen_submissions (seen_at);
@@ -0,0 +1,12 @@
+-- submission_history becomes an append-only log of accepted submissions. Nothing wrote
+-- to it before, so existing rows (if any) need no backfill. Reads by user and time use
+-- idx_submission_history_user_solved from V2.
+
+CREATE SEQUENCE IF NOT EXISTS submission_history_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE submission_history ADD COLUMN IF NOT EXISTS submission_id VARCHAR(255);
+
+-- Difficulty and frontend id are recorded when known, not looked up at write time
+ALTER TABLE submission_history ALTER COLUMN problemId SET NULL;
+
+ALTER TABLE submission_history ALTER COLUMN difficulty SET NULL;
@@ -0,0 +1,34 @@
+-- Per-user solve counts by day and all time, maintained by the poll cycle's writer
+CREATE TABLE IF NOT EXISTS solve_rollup (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES tracked_users (id),
+    period_type CHAR(1) NOT NULL,
+    period_start DATE NOT NULL,
+    easy INTEGER NOT NULL,
+    medium INTEGER NOT NULL,
+    hard INTEGER NOT NULL,
+    total INTEGER NOT NULL,
+    UNIQUE (user_id, period_type, period_start)
+);
+
+CREATE INDEX IF NOT EXISTS idx_solve_rollup_period ON solve_rollup (period_type, period_start, user_id);
+
+-- Seed from the existing solve history. Only the latest solve of each problem is known,
+-- so earlier days of re-solved problems are not reconstructed.
+INSERT INTO solve_rollup (user_id, period_type, period_start, easy, medium, hard, total)
+SELECT h.user_id, 'D', CAST(h.lastSolvedAt AS DATE),
+       SUM(CASE WHEN m.difficulty = 'Easy' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN m.difficulty = 'Medium' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN m.difficulty = 'Hard' THEN 1 ELSE 0 END),
+       COUNT(*)
+FROM problem_solve_history h LEFT JOIN problem_metadata m ON m.title_slug = h.problemSlug
+GROUP BY h.user_id, CAST(h.lastSolvedAt AS DATE);
+
+INSERT INTO solve_rollup (user_id, period_type, period_start, easy, medium, hard, total)
+SELECT h.user_id, 'A', DATE '1970-01-01',
+       SUM(CASE WHEN m.difficulty = 'Easy' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN m.difficulty = 'Medium' THEN 1 ELSE 0 END),
+       SUM(CASE WHEN m.difficulty = 'Hard' THEN 1 ELSE 0 END),
+       COUNT(*)
+FROM problem_solve_history h LEFT JOIN problem_metadata m ON m.title_slug = h.problemSlug
+GROUP BY h.user_id;
@@ -0,0 +1,18 @@
+-- Solve streaks per user, advanced by the poll cycle's writer and reset by the nightly sweep
+CREATE TABLE IF NOT EXISTS user_streak (
+    user_id BIGINT PRIMARY KEY REFERENCES tracked_users (id),
+    current_streak INTEGER NOT NULL,
+    longest_streak INTEGER NOT NULL,
+    last_active_date DATE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_streak_last_active ON user_streak (last_active_date);
+
+-- Past streaks cannot be told from the solve history, so every user starts with a streak
+-- of one on their last active (Warsaw-local) day. Streaks that are already broken are
+-- reset by the sweep the tracker runs on startup, which works in Warsaw time.
+INSERT INTO user_streak (user_id, current_streak, longest_streak, last_active_date)
+SELECT r.user_id, 1, 1, MAX(r.period_start)
+FROM solve_rollup r
+WHERE r.period_type = 'D'
+GROUP BY r.user_id;
@@ -0,0 +1,13 @@
+-- Subscriptions from the old user_channels table become channel_subscription rows without
+-- a guild; the bot fills in the guild on startup once it can ask Discord for it.
+-- Recreated first so a re-run after the drop below has already committed still succeeds.
+CREATE TABLE IF NOT EXISTS user_channels (
+    user_id BIGINT NOT NULL,
+    channel_id VARCHAR(255) NOT NULL
+);
+
+INSERT INTO channel_subscription (user_id, channel_id)
+SELECT uc.user_id, uc.channel_id FROM user_channels uc WHERE NOT EXISTS (
+    SELECT 1 FROM channel_subscription cs WHERE cs.user_id = uc.user_id AND cs.channel_id = uc.channel_id);
+
+DROP TABLE IF EXISTS user_channels;
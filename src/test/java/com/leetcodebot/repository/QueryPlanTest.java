@@ -0,0 +1,186 @@
+package com.leetcodebot.repository;
+
+import com.leetcodebot.config.DatabaseConfig;
+import com.leetcodebot.model.TrackedUser;
+import com.leetcodebot.repository.PollCycleWriter.DetectedSolve;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the hot repository queries against a migrated in-memory database with some data
+ * in it, records the SQL Hibernate generates for them and fails if the {@code EXPLAIN}
+ * plan of any of those statements reads the queried table without an index condition.
+ */
+class QueryPlanTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private static final String[] SEED = {
+        "INSERT INTO tracked_users (username, active, lastCheckTime) " +
+            "SELECT 'user-' || X, TRUE, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, 200)",
+        "INSERT INTO channel_subscription (user_id, guild_id, channel_id) " +
+            "SELECT id, 'guild-' || MOD(id, 10), 'channel-' || id FROM tracked_users",
+        "INSERT INTO problem_solve_history (user_id, problemSlug, lastSolvedAt, solveCount) " +
+            "SELECT u.id, 'problem-' || r.X, DATEADD('HOUR', -r.X, CURRENT_TIMESTAMP), 1 " +
+            "FROM tracked_users u CROSS JOIN SYSTEM_RANGE(1, 50) r",
+        "INSERT INTO seen_submissions (user_id, submission_id, seen_at) " +
+            "SELECT u.id, 'submission-' || r.X, DATEADD('HOUR', -r.X, CURRENT_TIMESTAMP) " +
+            "FROM tracked_users u CROSS JOIN SYSTEM_RANGE(1, 32) r",
+        "INSERT INTO solve_rollup (user_id, period_type, period_start, easy, medium, hard, total) " +
+            "SELECT u.id, 'D', DATEADD('DAY', -r.X, CURRENT_DATE), 1, 0, 0, 1 " +
+            "FROM tracked_users u CROSS JOIN SYSTEM_RANGE(1, 60) r",
+        "INSERT INTO user_streak (user_id, current_streak, longest_streak, last_active_date) " +
+            "SELECT id, 1, 1, DATEADD('DAY', -id, CURRENT_DATE) FROM tracked_users",
+        "ANALYZE"
+    };
+
+    @BeforeAll
+    static void setUp() {
+        // Both are read when the EntityManagerFactory is first created
+        System.setProperty("db.url", "jdbc:h2:mem:query-plan-test;DB_CLOSE_DELAY=-1");
+        System.setProperty("hibernate.session_factory.statement_inspector", RecordingInspector.class.getName());
+
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            entityManager.unwrap(Session.class).doWork(connection -> {
+                try (Statement statement = connection.createStatement()) {
+                    for (String sql : SEED) {
+                        statement.execute(sql);
+                    }
+                }
+            });
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Test
+    void solvesOfUserInTimeRangeUseIndex() {
+        TrackedUser user = new TrackedUserRepository().findByUsername("user-1").orElseThrow();
+        assertIndexed("problem_solve_history",
+            () -> new ProblemSolveHistoryRepository().findByUserInTimeRange(user, NOW.minusDays(1), NOW));
+    }
+
+    @Test
+    void activeSolvesInTimeRangeUseIndex() {
+        assertIndexed("problem_solve_history",
+            () -> new ProblemSolveHistoryRepository().findActiveSolvesInTimeRange(NOW.minusDays(1), NOW));
+    }
+
+    @Test
+    void pollCycleSolveLookupUsesIndex() {
+        PollCycleWriter writer = new PollCycleWriter();
+        writer.addSolve(new DetectedSolve(1L, "user-1", "submission-new-1", "Problem 1", "problem-1", "java", NOW));
+        writer.addSolve(new DetectedSolve(2L, "user-2", "submission-new-2", "Problem 2", "problem-2", "java", NOW));
+        assertIndexed("problem_solve_history", writer::flush);
+    }
+
+    @Test
+    void recentSeenSubmissionsUseIndex() {
+        assertIndexed("seen_submissions", () -> new SeenSubmissionRepository().findRecentSubmissionIds(1L, 32));
+    }
+
+    @Test
+    void seenSubmissionPruningUsesIndex() {
+        assertIndexed("seen_submissions", () -> new SeenSubmissionRepository().deleteSeenBefore(NOW.minusDays(30)));
+    }
+
+    @Test
+    void leaderboardUsesIndex() {
+        assertIndexed("solve_rollup",
+            () -> new SolveRollupRepository().findLeaderboard("D", LocalDate.now().minusDays(7), List.of(1L, 2L)));
+    }
+
+    @Test
+    void streakSweepUsesIndex() {
+        assertIndexed("user_streak", () -> new UserStreakRepository().breakInactiveStreaks(LocalDate.now()));
+    }
+
+    @Test
+    void deadChannelPruningUsesIndex() {
+        assertIndexed("channel_subscription",
+            () -> new ChannelSubscriptionRepository().removeChannels(List.of("channel-199", "channel-200")));
+    }
+
+    /**
+     * Runs {@code call} and checks the plan of every select, update and delete it sent
+     * that touches {@code table}.
+     */
+    private static void assertIndexed(String table, Runnable call) {
+        RecordingInspector.STATEMENTS.clear();
+        call.run();
+
+        List<String> statements = new ArrayList<>();
+        synchronized (RecordingInspector.STATEMENTS) {
+            for (String sql : RecordingInspector.STATEMENTS) {
+                String lower = sql.toLowerCase(Locale.ROOT);
+                if (lower.contains(table) && !lower.startsWith("insert")) {
+                    statements.add(sql);
+                }
+            }
+        }
+        assertFalse(statements.isEmpty(), () -> "No query on " + table + " was recorded");
+
+        // H2 prints the access path after each table reference; an index lookup lists its condition
+        // after a colon, while both a table scan and a walk over a whole index have none
+        Pattern access = Pattern.compile(
+            "\"PUBLIC\"\\.\"" + table.toUpperCase(Locale.ROOT) + "\"(?: \"\\w+\")?\\s*/\\* PUBLIC\\.[\\w.]+(:?)");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher matcher = access.matcher(plan);
+            assertTrue(matcher.find(), () -> "No access to " + table + " in plan:\n" + plan);
+            do {
+                assertFalse(matcher.group(1).isEmpty(), () -> "Full scan of " + table + ":\n" + plan);
+            } while (matcher.find());
+        }
+    }
+
+    private static String explain(String sql) {
+        EntityManager entityManager = DatabaseConfig.getEntityManagerFactory().createEntityManager();
+        try {
+            return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery("EXPLAIN " + sql)) {
+                    StringBuilder plan = new StringBuilder();
+                    while (result.next()) {
+                        plan.append(result.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            });
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    /**
+     * Collects the SQL of every statement Hibernate prepares.
+     */
+    public static class RecordingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}